@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Measures time-to-ready of an application image: container start until /actuator/health/readiness reports UP.
+# Compare a regular and a fast-start image, e.g.
+#   docker build -f scripts/vaaskel/Dockerfile -t vaaskel:regular .
+#   docker build -f scripts/vaaskel/Dockerfile --build-arg FAST_START=true -t vaaskel:fast-start .
+#   scripts/vaaskel/startup-benchmark.sh vaaskel:regular vaaskel:fast-start
+# Needs the compose database running (docker compose up -d database).
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+NETWORK=${NETWORK:-$(docker network ls --format '{{.Name}}' | grep 'vaaskel_net$' | head -n 1)}
+PROFILE=${PROFILE:-int}
+DB_URL=${DB_URL:-jdbc:postgresql://pg:5432/vaaskel_${PROFILE}?reWriteBatchedInserts=true}
+TIMEOUT_S=${TIMEOUT_S:-180}
+
+if [ "$#" -eq 0 ]; then
+    echo "usage: $0 <image> [<image>...]" >&2
+    exit 1
+fi
+
+now_ms() { date +%s%3N; }
+
+echo "image,run,ready_ms,spring_started_s"
+for image in "$@"; do
+    results=()
+    for run in $(seq 1 "$RUNS"); do
+        start=$(now_ms)
+        cid=$(docker run -d --rm --network "$NETWORK" -p "$PORT:8080" \
+            -e SPRING_PROFILES_ACTIVE="$PROFILE" \
+            -e SPRING_DATASOURCE_URL="$DB_URL" \
+            -e SPRING_DATASOURCE_USERNAME=root \
+            -e SPRING_DATASOURCE_PASSWORD=root \
+            "$image")
+
+        until curl -fs "http://localhost:$PORT/actuator/health/readiness" | grep -q '"UP"'; do
+            if [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_S * 1000 )) ]; then
+                echo "$image did not become ready within ${TIMEOUT_S}s" >&2
+                docker stop "$cid" > /dev/null
+                exit 1
+            fi
+            sleep 0.1
+        done
+        ready=$(( $(now_ms) - start ))
+
+        # "Started Application in 4.321 seconds (process running for 5.012)"
+        started=$(docker logs "$cid" 2>&1 | sed -n 's/.*Started Application in \([0-9.]*\) seconds.*/\1/p' | head -n 1)
+        docker stop "$cid" > /dev/null
+
+        echo "$image,$run,$ready,${started:-}"
+        results+=("$ready")
+    done
+
+    median=$(printf '%s\n' "${results[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+    echo "# $image median ready_ms=$median over $RUNS runs" >&2
+done
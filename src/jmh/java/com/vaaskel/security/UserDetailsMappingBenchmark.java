@@ -0,0 +1,31 @@
+package com.vaaskel.security;
+
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authority building of {@link VaaskelUserDetailsService} on every login (cache miss).
+ */
+@State(Scope.Thread)
+public class UserDetailsMappingBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User("benchmark.user", "{bcrypt}hash");
+        user.addRole(new UserRole(UserRoleType.USER, user));
+        user.addRole(new UserRole(UserRoleType.ADMIN, user));
+    }
+
+    @Benchmark
+    public UserDetails toUserDetails() {
+        return VaaskelUserDetailsService.toUserDetails(user);
+    }
+}
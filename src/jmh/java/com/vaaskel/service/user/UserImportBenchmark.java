@@ -0,0 +1,87 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+/**
+ * End-to-end CSV-free import of {@code rows} users into the in-memory test database, one import per
+ * invocation. Uses bcrypt cost 4, so the numbers describe the import pipeline rather than production hashing.
+ * Select sizes with {@code -p rows=10000,100000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class UserImportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public long rows;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private UserRoleRepository userRoleRepository;
+    private UserImportService userImportService;
+    private final AtomicInteger run = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UserPageQueryBenchmark.PersistenceOnly.class)
+                .profiles("test")
+                .properties("spring.jpa.properties.hibernate.jdbc.batch_size=50")
+                .run();
+        userRepository = context.getBean(UserRepository.class);
+        userRoleRepository = context.getBean(UserRoleRepository.class);
+
+        userImportService = new UserImportService(userRepository, userRoleRepository, new BCryptPasswordEncoder(4),
+                new UsernameSearchIndex(userRepository),
+                SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class)),
+                context.getBean(PlatformTransactionManager.class), 500, 0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        userRoleRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        userImportService.shutdown();
+        context.close();
+    }
+
+    @Benchmark
+    public UserImportResult importUsers() {
+        int iteration = run.incrementAndGet();
+        UserImportResult result = userImportService.importUsers(LongStream.range(0, rows)
+                .mapToObj(i -> new UserImportRow(i + 1, "bench-" + iteration + "-" + i, "secret",
+                        EnumSet.of(UserRoleType.USER))));
+
+        if (result.importedRows() != rows) {
+            throw new IllegalStateException("Imported " + result.importedRows() + " of " + rows + " rows");
+        }
+        return result;
+    }
+}
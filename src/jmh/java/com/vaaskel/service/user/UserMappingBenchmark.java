@@ -0,0 +1,53 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.api.user.UserDto;
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Per-row mapping code of {@link UserServiceImpl}: entity to DTO, DTO to entity and role collection.
+ */
+@State(Scope.Thread)
+public class UserMappingBenchmark {
+
+    private User user;
+    private UserDto dto;
+    private List<UserRole> roles;
+
+    @Setup
+    public void setUp() {
+        user = new User("benchmark.user", "{bcrypt}hash");
+        user.setId(42L);
+        user.setCreatedAt(LocalDateTime.now().minusDays(10));
+        user.setChangedAt(LocalDateTime.now());
+
+        dto = UserServiceImpl.toDtoBasic(user);
+
+        roles = List.of(new UserRole(UserRoleType.USER, user), new UserRole(UserRoleType.ADMIN, user));
+    }
+
+    @Benchmark
+    public UserDto toDtoBasic() {
+        return UserServiceImpl.toDtoBasic(user);
+    }
+
+    @Benchmark
+    public User fromDtoBasic() {
+        UserServiceImpl.fromDtoBasic(dto, user);
+        return user;
+    }
+
+    @Benchmark
+    public EnumSet<UserRoleType> toRoleSet() {
+        return UserServiceImpl.toRoleSet(roles);
+    }
+}
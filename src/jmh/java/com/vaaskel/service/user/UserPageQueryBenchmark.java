@@ -0,0 +1,132 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.api.user.UserDto;
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.repository.security.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One grid page of users against the in-memory test database: full entities mapped with
+ * {@link UserServiceImpl#toDtoBasic} (previous list queries) versus {@code UserListEntry} projections.
+ * Run with {@code -prof gc} to compare the allocations per page. The entity query is local to the benchmark,
+ * the application no longer has one. The setup prints the SQL payload (column values) per page of both.
+ */
+@State(Scope.Benchmark)
+public class UserPageQueryBenchmark {
+
+    private static final int USERS = 5_000;
+    // Same width as a real delegating bcrypt hash, which the entity query reads for every row
+    private static final String PASSWORD_HASH = "{bcrypt}$2a$10$" + "x".repeat(53);
+
+    // Columns read by the entity query and by the UserListEntry projection
+    private static final String ENTITY_COLUMNS = "*";
+    private static final String PROJECTION_COLUMNS = "id, version, created_at, changed_at, user_name, visible, "
+            + "read_only, enabled, account_non_locked, account_non_expired, credentials_non_expired";
+
+    @Param({"50"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private long firstId;
+
+    @EnableAutoConfiguration
+    @AutoConfigurationPackage(basePackages = "com.vaaskel")
+    static class PersistenceOnly {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PersistenceOnly.class).profiles("test").run();
+        userRepository = context.getBean(UserRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("benchmark.user." + i, PASSWORD_HASH));
+        }
+        firstId = userRepository.saveAll(users).getFirst().getId();
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        System.out.printf("SQL payload per page of %d users: entity %d bytes, projection %d bytes%n", pageSize,
+                payloadBytes(jdbc, ENTITY_COLUMNS), payloadBytes(jdbc, PROJECTION_COLUMNS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserDto> entityPage() {
+        long after = randomCursor();
+        return readOnly.execute(_ -> entityManager
+                .createQuery("select u from User u where u.id > :after order by u.id", User.class)
+                .setParameter("after", after)
+                .setMaxResults(pageSize)
+                .getResultList()
+                .stream().map(UserServiceImpl::toDtoBasic).toList());
+    }
+
+    @Benchmark
+    public List<UserDto> projectionPage() {
+        long after = randomCursor();
+        return readOnly.execute(_ -> userRepository.findEntriesByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize))
+                .stream().map(UserServiceImpl::toDto).toList());
+    }
+
+    // Strings by their UTF-8 length, booleans as one byte, numbers and timestamps as eight
+    private long payloadBytes(JdbcTemplate jdbc, String columns) {
+        return jdbc.query("select " + columns + " from users where id > ? order by id limit ?",
+                this::payloadBytes, firstId, pageSize);
+    }
+
+    private long payloadBytes(ResultSet rs) throws SQLException {
+        long bytes = 0;
+        int columns = rs.getMetaData().getColumnCount();
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                bytes += switch (rs.getObject(i)) {
+                    case null -> 0;
+                    case String value -> value.getBytes(StandardCharsets.UTF_8).length;
+                    case Boolean _ -> 1;
+                    default -> 8;
+                };
+            }
+        }
+        return bytes;
+    }
+
+    private long randomCursor() {
+        return firstId + ThreadLocalRandom.current().nextInt(USERS - pageSize);
+    }
+}
@@ -0,0 +1,39 @@
+package com.vaaskel.ui.i18n;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Label lookups as done by every view on navigation.
+ */
+@State(Scope.Benchmark)
+public class TranslationBenchmark {
+
+    @Param({"en", "de"})
+    public String language;
+
+    private AppI18NProvider provider;
+    private Locale locale;
+
+    @Setup
+    public void setUp() {
+        provider = new AppI18NProvider(Duration.ZERO);
+        locale = Locale.forLanguageTag(language);
+    }
+
+    @Benchmark
+    public String plain() {
+        return provider.getTranslation("view.login.form.username", locale);
+    }
+
+    @Benchmark
+    public String missing() {
+        return provider.getTranslation("benchmark.missing.key", locale);
+    }
+}
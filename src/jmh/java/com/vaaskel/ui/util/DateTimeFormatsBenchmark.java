@@ -0,0 +1,32 @@
+package com.vaaskel.ui.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-cell formatting of timestamp columns.
+ */
+@State(Scope.Thread)
+public class DateTimeFormatsBenchmark {
+
+    private LocalDateTime value;
+
+    @Setup
+    public void setUp() {
+        value = LocalDateTime.now().minusHours(5);
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return DateTimeFormats.formatDateTime(value);
+    }
+
+    @Benchmark
+    public String formatRelative() {
+        return DateTimeFormats.formatRelative(value);
+    }
+}
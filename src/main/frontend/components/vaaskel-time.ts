@@ -0,0 +1,105 @@
+import { LitElement, html } from 'lit';
+import { customElement, property } from 'lit/decorators.js';
+
+/**
+ * Formats a timestamp in the browser.
+ *
+ * `value` is epoch seconds (as sent by DateTimeRenderers), `mode` is `datetime`, `date`, `time` or `relative`.
+ * Formatters are created once per locale; relative times of all connected elements are refreshed by a
+ * single shared timer.
+ */
+
+const formatters = new Map<string, Intl.DateTimeFormat | Intl.RelativeTimeFormat>();
+
+const DATE_TIME_OPTIONS: Record<string, Intl.DateTimeFormatOptions> = {
+  datetime: { dateStyle: 'medium', timeStyle: 'short' },
+  date: { dateStyle: 'medium' },
+  time: { timeStyle: 'short' },
+};
+
+const RELATIVE_UNITS: [Intl.RelativeTimeFormatUnit, number][] = [
+  ['year', 365 * 24 * 3600],
+  ['month', 30 * 24 * 3600],
+  ['day', 24 * 3600],
+  ['hour', 3600],
+  ['minute', 60],
+];
+
+const REFRESH_INTERVAL_MS = 30_000;
+
+const relativeElements = new Set<VaaskelTime>();
+let refreshTimer: number | undefined;
+
+function locale(): string {
+  return document.documentElement.lang || navigator.language;
+}
+
+function formatter<T extends Intl.DateTimeFormat | Intl.RelativeTimeFormat>(key: string, create: () => T): T {
+  let cached = formatters.get(key);
+  if (!cached) {
+    cached = create();
+    formatters.set(key, cached);
+  }
+  return cached as T;
+}
+
+function formatRelative(seconds: number, lang: string): string {
+  const rtf = formatter(`${lang}|relative`, () => new Intl.RelativeTimeFormat(lang, { numeric: 'auto' }));
+  const diff = seconds - Date.now() / 1000;
+
+  for (const [unit, size] of RELATIVE_UNITS) {
+    if (Math.abs(diff) >= size) {
+      return rtf.format(Math.trunc(diff / size), unit);
+    }
+  }
+  return rtf.format(0, 'minute');
+}
+
+@customElement('vaaskel-time')
+export class VaaskelTime extends LitElement {
+  @property({ type: Number })
+  value?: number;
+
+  @property()
+  mode = 'datetime';
+
+  // Plain text, no shadow root: keeps grid cells cheap
+  protected createRenderRoot() {
+    return this;
+  }
+
+  connectedCallback() {
+    super.connectedCallback();
+    if (this.mode === 'relative') {
+      relativeElements.add(this);
+      refreshTimer ??= window.setInterval(
+        () => relativeElements.forEach((element) => element.requestUpdate()),
+        REFRESH_INTERVAL_MS,
+      );
+    }
+  }
+
+  disconnectedCallback() {
+    super.disconnectedCallback();
+    relativeElements.delete(this);
+    if (relativeElements.size === 0 && refreshTimer !== undefined) {
+      window.clearInterval(refreshTimer);
+      refreshTimer = undefined;
+    }
+  }
+
+  render() {
+    if (this.value === undefined || this.value === null) {
+      return html``;
+    }
+
+    const lang = locale();
+    if (this.mode === 'relative') {
+      return html`${formatRelative(this.value, lang)}`;
+    }
+
+    const options = DATE_TIME_OPTIONS[this.mode] ?? DATE_TIME_OPTIONS.datetime;
+    const dtf = formatter(`${lang}|${this.mode}`, () => new Intl.DateTimeFormat(lang, options));
+    return html`${dtf.format(this.value * 1000)}`;
+  }
+}
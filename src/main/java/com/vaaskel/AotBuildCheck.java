@@ -0,0 +1,73 @@
+package com.vaaskel;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Refuses to start on Spring AOT artifacts generated for other settings.
+ * <p>
+ * AOT evaluates profile and {@code @ConditionalOnProperty} conditions at build time, so running a fast-start
+ * image with another profile, {@code VAASKEL_VIRTUAL_THREADS} or replica routing setting would silently keep
+ * the beans of the build. The fast-start build records its settings in {@value #BUILD_SETTINGS}.
+ */
+class AotBuildCheck implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    static final String BUILD_SETTINGS = "META-INF/vaaskel/aot-build.properties";
+
+    private static final String PROFILES = "spring.profiles.active";
+    private static final List<String> CONDITION_PROPERTIES =
+            List.of("spring.threads.virtual.enabled", "vaaskel.datasource.routing.enabled");
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ClassPathResource resource = new ClassPathResource(BUILD_SETTINGS, Application.class.getClassLoader());
+        if (!AotDetector.useGeneratedArtifacts() || !resource.exists()) {
+            return;
+        }
+
+        try {
+            check(PropertiesLoaderUtils.loadProperties(resource), event.getEnvironment());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + BUILD_SETTINGS, e);
+        }
+    }
+
+    static void check(Properties build, ConfigurableEnvironment environment) {
+        List<String> mismatches = new ArrayList<>();
+
+        Set<String> builtProfiles = new TreeSet<>(StringUtils.commaDelimitedListToSet(
+                StringUtils.trimAllWhitespace(build.getProperty(PROFILES, ""))));
+        Set<String> activeProfiles = new TreeSet<>(Arrays.asList(environment.getActiveProfiles()));
+        if (!builtProfiles.equals(activeProfiles)) {
+            mismatches.add("profiles " + activeProfiles + " (built for " + builtProfiles + ")");
+        }
+
+        for (String property : CONDITION_PROPERTIES) {
+            String built = build.getProperty(property, "false").trim();
+            String actual = environment.getProperty(property, "false").trim();
+            if (!built.equalsIgnoreCase(actual)) {
+                mismatches.add(property + "=" + actual + " (built for " + built + ")");
+            }
+        }
+
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Spring AOT artifacts were generated for other settings: "
+                    + String.join(", ", mismatches) + ". Rebuild the image with matching build arguments "
+                    + "(AOT_PROFILE, AOT_VIRTUAL_THREADS, AOT_ROUTING) or start without -Dspring.aot.enabled=true.");
+        }
+    }
+}
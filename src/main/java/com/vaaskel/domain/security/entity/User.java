@@ -3,19 +3,29 @@ package com.vaaskel.domain.security.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.vaaskel.domain.common.AbstractEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Table(
         name = "users",
         indexes = {
-                @Index(name = "ux_users_user_name", columnList = "user_name", unique = true)
+                @Index(name = "ux_users_user_name", columnList = "user_name", unique = true),
+                @Index(name = "ix_users_changed_at_id", columnList = "changed_at, id")
         }
 )
 public class User extends AbstractEntity {
 
+    public static final String CACHE_REGION = "vaaskel.user";
+    public static final String ROLES_CACHE_REGION = "vaaskel.user.roles";
+    /** Collection role of {@link #roles}, needed to evict it (roles are written from the owning side) */
+    public static final String ROLES_COLLECTION_ROLE = "com.vaaskel.domain.security.entity.User.roles";
+
     @Column(name = "user_name", nullable = false, length = 100, unique = true)
     private String username;
 
@@ -35,6 +45,7 @@ public class User extends AbstractEntity {
     @Column(name = "credentials_non_expired", nullable = false)
     private boolean credentialsNonExpired = true;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ROLES_CACHE_REGION)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<UserRole> roles = new HashSet<>();
 
@@ -2,8 +2,12 @@ package com.vaaskel.domain.security.entity;
 
 import com.vaaskel.domain.common.AbstractEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vaaskel.user-role")
 @Table(
         name = "user_roles",
         indexes = {
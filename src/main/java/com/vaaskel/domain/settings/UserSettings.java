@@ -3,8 +3,12 @@ package com.vaaskel.domain.settings;
 import com.vaaskel.domain.common.AbstractEntity;
 import com.vaaskel.domain.security.entity.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vaaskel.user-settings")
 @Table(name = "USER_SETTINGS")
 public class UserSettings extends AbstractEntity {
     @OneToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,43 @@
+package com.vaaskel.repository.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application data source with replica routing.
+ * <p>
+ * Connections are fetched lazily, on the first statement, when the transaction's read-only flag is
+ * already known: read-only transactions get a connection from the {@link ReplicaPool}, all others
+ * from the primary.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final DataSource primary;
+    private final ReplicaPool replicaPool;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicaPool) {
+        super(primary);
+        setReadOnlyDataSource(replicaPool);
+        this.primary = primary;
+        this.replicaPool = replicaPool;
+    }
+
+    /**
+     * The primary pool followed by the replica pools, e.g. to open their connections up front.
+     */
+    public List<DataSource> pools() {
+        List<DataSource> pools = new ArrayList<>();
+        pools.add(primary);
+        pools.addAll(replicaPool.replicaDataSources());
+        return pools;
+    }
+
+    @Override
+    public void close() {
+        replicaPool.close();
+        ReplicaPool.closeQuietly(primary);
+    }
+}
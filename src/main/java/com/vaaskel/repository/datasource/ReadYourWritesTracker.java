@@ -0,0 +1,107 @@
+package com.vaaskel.repository.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which sessions committed a read-write transaction recently, so their reads go to the
+ * primary until the replicas have caught up (read-your-writes).
+ * <p>
+ * The session is the HTTP session of the current request, or of the current Vaadin session for work
+ * done over push. As a {@link TaskDecorator} the tracker carries that key over to tasks handed to other
+ * threads (e.g. {@code BackgroundLoader}), so a view that loads in the background after a save still
+ * reads from the primary. Work without any session (startup, scheduled jobs) is not tracked.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener, TaskDecorator {
+
+    private final Cache<String, Boolean> recentWriters;
+    private final Supplier<String> sessionKey;
+    private final ThreadLocal<String> boundSessionKey = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(Duration stickiness) {
+        this(stickiness, ReadYourWritesTracker::currentSessionId);
+    }
+
+    ReadYourWritesTracker(Duration stickiness, Supplier<String> sessionKey) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .maximumSize(100_000)
+                .build();
+        this.sessionKey = sessionKey;
+    }
+
+    /**
+     * Runs the task with the session of the submitting thread.
+     */
+    @Override
+    public Runnable decorate(Runnable task) {
+        String key = currentKey();
+        if (key == null) {
+            return task;
+        }
+        return () -> {
+            String previous = boundSessionKey.get();
+            boundSessionKey.set(key);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    boundSessionKey.set(previous);
+                } else {
+                    boundSessionKey.remove();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            markWrite();
+        }
+    }
+
+    public void markWrite() {
+        String key = currentKey();
+        if (key != null) {
+            recentWriters.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * True if the current session wrote within the stickiness window.
+     */
+    public boolean recentlyWrote() {
+        String key = currentKey();
+        return key != null && recentWriters.getIfPresent(key) != null;
+    }
+
+    private String currentKey() {
+        String bound = boundSessionKey.get();
+        return bound != null ? bound : sessionKey.get();
+    }
+
+    private static String currentSessionId() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpSession session = attributes.getRequest().getSession(false);
+            if (session != null) {
+                return session.getId();
+            }
+        }
+        // Push (websocket) messages do not pass the request context filter
+        VaadinSession vaadinSession = VaadinSession.getCurrent();
+        WrappedSession session = vaadinSession != null ? vaadinSession.getSession() : null;
+        return session != null ? session.getId() : null;
+    }
+}
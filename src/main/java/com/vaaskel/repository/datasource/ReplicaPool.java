@@ -0,0 +1,161 @@
+package com.vaaskel.repository.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Hands out read-only connections: round robin over the healthy replicas, the primary as fallback.
+ * <p>
+ * A replica is skipped for {@code retryAfter} when a connection attempt fails, and while its lag
+ * (checked periodically with the lag query) exceeds {@code maxLag}. Sessions that wrote recently
+ * always get the primary, see {@link ReadYourWritesTracker}.
+ */
+public class ReplicaPool extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final long retryAfterNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ScheduledExecutorService healthCheck;
+
+    public ReplicaPool(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker tracker,
+            Duration maxLag, String lagQuery, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = IntStream.range(0, replicas.size())
+                .mapToObj(i -> new Replica(i, replicas.get(i)))
+                .toList();
+        this.tracker = tracker;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    /**
+     * Starts the periodic lag check (only if a lag query is configured).
+     */
+    public void startHealthCheck(Duration interval) {
+        if (lagQuery == null || lagQuery.isBlank() || replicas.isEmpty()) {
+            return;
+        }
+
+        healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The replica pools, in configuration order.
+     */
+    public List<DataSource> replicaDataSources() {
+        return replicas.stream().map(replica -> replica.dataSource).toList();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!tracker.recentlyWrote()) {
+            int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.isAvailable()) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.markFailed(retryAfterNanos);
+                    LOGGER.warn("Replica {} unavailable, skipping it for {} s: {}", replica.index,
+                            retryAfterNanos / 1_000_000_000, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per replica");
+    }
+
+    @Override
+    public void close() {
+        if (healthCheck != null) {
+            healthCheck.shutdownNow();
+        }
+        replicas.forEach(replica -> closeQuietly(replica.dataSource));
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(lagQuery)) {
+                double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                boolean lagging = lagSeconds * 1000 > maxLag.toMillis();
+
+                if (lagging != replica.lagging) {
+                    LOGGER.warn("Replica {} lag is {} s ({} max {} s)", replica.index, lagSeconds,
+                            lagging ? "above" : "back within", maxLag.toSeconds());
+                }
+                replica.lagging = lagging;
+                replica.failedUntil = 0;
+            } catch (SQLException | RuntimeException e) {
+                replica.markFailed(retryAfterNanos);
+            }
+        }
+    }
+
+    static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                LOGGER.debug("Closing data source failed", e);
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final int index;
+        private final DataSource dataSource;
+        private volatile boolean lagging;
+        private volatile long failedUntil;
+
+        Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+
+        boolean isAvailable() {
+            return !lagging && (failedUntil == 0 || System.nanoTime() - failedUntil >= 0);
+        }
+
+        void markFailed(long retryAfterNanos) {
+            failedUntil = System.nanoTime() + retryAfterNanos;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.vaaskel.repository.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Replaces the auto-configured data source with a {@link ReadWriteRoutingDataSource} when
+ * {@code vaaskel.datasource.routing.enabled=true}. Without replicas configured, everything
+ * still goes to the primary.
+ * <p>
+ * The primary and every replica get their own Hikari pool, each configured from
+ * {@code spring.datasource.hikari.*} and reporting {@code hikaricp.*} metrics under its pool name
+ * ({@code primary}, {@code replica-0}, ...).
+ * <p>
+ * The Hibernate query cache is switched off with routing: it is only invalidated by this node's own
+ * writes, so a count read from a lagging replica right after a write would stay cached as current.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "vaaskel.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.stickiness());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer disableQueryCacheWithReplicas() {
+        return properties -> properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+
+    /**
+     * Pool settings shared by all pools; the auto-configured pool that would bind them is replaced here.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig routingPoolSettings() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+            ReplicaRoutingProperties properties, ReadYourWritesTracker tracker, HikariConfig routingPoolSettings,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = pool(routingPoolSettings, "primary", dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(), meterRegistry);
+        primary.setDriverClassName(dataSourceProperties.determineDriverClassName());
+
+        List<ReplicaRoutingProperties.Replica> replicaSettings = properties.replicas();
+        List<DataSource> replicas = IntStream.range(0, replicaSettings.size())
+                .mapToObj(i -> (DataSource) pool(routingPoolSettings, "replica-" + i, replicaSettings.get(i).url(),
+                        replicaSettings.get(i).username(), replicaSettings.get(i).password(), meterRegistry))
+                .toList();
+
+        ReplicaPool replicaPool = new ReplicaPool(primary, replicas, tracker, properties.maxLag(),
+                properties.lagQuery(), properties.retryAfter());
+        replicaPool.startHealthCheck(properties.healthCheckInterval());
+
+        return new ReadWriteRoutingDataSource(primary, replicaPool);
+    }
+
+    // Started on the first connection like the auto-configured pool, so a replica that is down does not fail the start
+    private static HikariDataSource pool(HikariConfig settings, String name, String url, String username,
+            String password, ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        settings.copyStateTo(pool);
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(
+                new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
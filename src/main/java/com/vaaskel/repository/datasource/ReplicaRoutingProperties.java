@@ -0,0 +1,32 @@
+package com.vaaskel.repository.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replica routing ({@code vaaskel.datasource.routing.*}).
+ *
+ * @param enabled             route read-only transactions to the replicas
+ * @param replicas            replica connections; the primary is the regular {@code spring.datasource}
+ * @param stickiness          how long a session reads from the primary after its last write
+ * @param maxLag              replicas lagging more than this are skipped
+ * @param lagQuery            query returning the replica lag in seconds (empty: lag is not checked)
+ * @param healthCheckInterval how often lag and availability of the replicas are checked
+ * @param retryAfter          how long a failed replica is skipped before it is tried again
+ */
+@ConfigurationProperties(prefix = "vaaskel.datasource.routing")
+public record ReplicaRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration stickiness,
+        @DefaultValue("10s") Duration maxLag,
+        @DefaultValue("select coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)") String lagQuery,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("30s") Duration retryAfter) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.vaaskel.repository.security;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a user row for lists and grids. Selects only the columns shown there
+ * (no password hash) and is not attached to the persistence context, so no dirty-checking snapshot is kept.
+ * Component names match the {@code User} properties so Spring Data can derive the constructor expression.
+ */
+public record UserListEntry(Long id, Long version, LocalDateTime createdAt, LocalDateTime changedAt,
+        String username, boolean visible, boolean readOnly, boolean enabled, boolean accountNonLocked,
+        boolean accountNonExpired, boolean credentialsNonExpired) {
+}
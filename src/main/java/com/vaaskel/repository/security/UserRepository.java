@@ -1,13 +1,23 @@
 package com.vaaskel.repository.security;
 
 import com.vaaskel.domain.security.entity.User;
-import org.springframework.data.domain.Page;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,7 +26,127 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
 
-    Page<User> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
-
+    // Grid counts come from the query cache until the users table changes (off with replica routing)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     long countByUsernameContainingIgnoreCase(String username);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    long count();
+
+    /**
+     * Current optimistic-lock version of a user; used to revalidate cached copies of the user cheaply.
+     */
+    @Query("select u.version from User u where u.username = :username")
+    Optional<Long> findVersionByUsername(@Param("username") String username);
+
+    /**
+     * Replaces the password hash only if it is still the expected one (compare-and-set).
+     *
+     * @return number of updated rows (0 if the password was changed in the meantime)
+     */
+    @Modifying
+    @Query("""
+            update User u set u.password = :newHash, u.version = u.version + 1
+            where u.username = :username and u.password = :oldHash
+            """)
+    int updatePasswordHash(@Param("username") String username, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
+
+    // Bulk actions: one statement per chunk of ids; only rows that change are written and versioned
+
+    @Modifying
+    @Query("""
+            update User u set u.enabled = :enabled, u.version = u.version + 1, u.changedAt = :now
+            where u.id in :ids and u.enabled <> :enabled
+            """)
+    int updateEnabled(@Param("ids") Collection<Long> ids, @Param("enabled") boolean enabled,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update User u set u.accountNonLocked = :nonLocked, u.version = u.version + 1, u.changedAt = :now
+            where u.id in :ids and u.accountNonLocked <> :nonLocked
+            """)
+    int updateAccountNonLocked(@Param("ids") Collection<Long> ids, @Param("nonLocked") boolean nonLocked,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update User u set u.credentialsNonExpired = :nonExpired, u.version = u.version + 1, u.changedAt = :now
+            where u.id in :ids and u.credentialsNonExpired <> :nonExpired
+            """)
+    int updateCredentialsNonExpired(@Param("ids") Collection<Long> ids, @Param("nonExpired") boolean nonExpired,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Versions the users that do not have the role yet, before it is added to them.
+     */
+    @Modifying
+    @Query("""
+            update User u set u.version = u.version + 1, u.changedAt = :now
+            where u.id in :ids
+              and not exists (select r.id from UserRole r where r.user = u and r.userRoleType = :role)
+            """)
+    int incrementVersionWithoutRole(@Param("ids") Collection<Long> ids, @Param("role") UserRoleType role,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Versions the users that have the role, before it is removed from them.
+     */
+    @Modifying
+    @Query("""
+            update User u set u.version = u.version + 1, u.changedAt = :now
+            where u.id in :ids
+              and exists (select r.id from UserRole r where r.user = u and r.userRoleType = :role)
+            """)
+    int incrementVersionWithRole(@Param("ids") Collection<Long> ids, @Param("role") UserRoleType role,
+            @Param("now") LocalDateTime now);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select new com.vaaskel.repository.security.UsernameEntry(u.id, u.username) from User u")
+    List<UsernameEntry> findAllUsernames();
+
+    // List queries return UserListEntry projections: only the grid columns, no managed entities.
+
+    List<UserListEntry> findEntriesBy(Pageable pageable);
+
+    List<UserListEntry> findEntriesByUsernameContainingIgnoreCase(String username, Pageable pageable);
+
+    List<UserListEntry> findEntriesByIdInOrderByIdAsc(Collection<Long> ids);
+
+    // Keyset (seek) pagination: the last row seen is the cursor, so no OFFSET scan is needed.
+
+    List<UserListEntry> findEntriesByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<UserListEntry> findEntriesByIdGreaterThanAndUsernameContainingIgnoreCaseOrderByIdAsc(Long id,
+            String username, Limit limit);
+
+    // (changed_at, id) keysets, served by ix_users_changed_at_id; pattern is a LIKE pattern escaped with '!'
+
+    @Query("""
+            select new com.vaaskel.repository.security.UserListEntry(u.id, u.version, u.createdAt, u.changedAt,
+                u.username, u.visible, u.readOnly, u.enabled, u.accountNonLocked, u.accountNonExpired,
+                u.credentialsNonExpired)
+            from User u
+            where (u.changedAt < :changedAt or (u.changedAt = :changedAt and u.id < :id))
+              and upper(u.username) like upper(:pattern) escape '!'
+            order by u.changedAt desc, u.id desc
+            """)
+    List<UserListEntry> findEntriesChangedBefore(@Param("pattern") String pattern,
+            @Param("changedAt") LocalDateTime changedAt, @Param("id") Long id, Limit limit);
+
+    @Query("""
+            select new com.vaaskel.repository.security.UserListEntry(u.id, u.version, u.createdAt, u.changedAt,
+                u.username, u.visible, u.readOnly, u.enabled, u.accountNonLocked, u.accountNonExpired,
+                u.credentialsNonExpired)
+            from User u
+            where (u.changedAt > :changedAt or (u.changedAt = :changedAt and u.id > :id))
+              and upper(u.username) like upper(:pattern) escape '!'
+            order by u.changedAt asc, u.id asc
+            """)
+    List<UserListEntry> findEntriesChangedAfter(@Param("pattern") String pattern,
+            @Param("changedAt") LocalDateTime changedAt, @Param("id") Long id, Limit limit);
 }
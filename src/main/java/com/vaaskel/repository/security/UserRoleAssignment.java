@@ -0,0 +1,9 @@
+package com.vaaskel.repository.security;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+
+/**
+ * Projection of a single role assignment, used to load the roles of many users in one query.
+ */
+public record UserRoleAssignment(Long userId, UserRoleType roleType) {
+}
@@ -2,10 +2,15 @@ package com.vaaskel.repository.security;
 
 import com.vaaskel.domain.security.entity.User;
 import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.security.entity.UserRoleType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,6 +19,30 @@ public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
 
     List<UserRole> findAllByUser(User user);
 
+    @Query("""
+            select new com.vaaskel.repository.security.UserRoleAssignment(r.user.id, r.userRoleType)
+            from UserRole r
+            where r.user.id in :userIds
+            """)
+    List<UserRoleAssignment> findAssignmentsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     @Modifying
     void deleteByUserId(long userId);
+
+    /**
+     * Adds the role to every given user that does not have it yet (bulk action), in one statement.
+     */
+    @Modifying
+    @Query("""
+            insert into UserRole (user, userRoleType, createdAt, changedAt, readOnly, visible)
+            select u, :role, :now, :now, false, false from User u
+            where u.id in :ids
+              and not exists (select r.id from UserRole r where r.user = u and r.userRoleType = :role)
+            """)
+    int insertRoleForUsers(@Param("ids") Collection<Long> ids, @Param("role") UserRoleType role,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from UserRole r where r.user.id in :ids and r.userRoleType = :role")
+    int deleteRoleForUsers(@Param("ids") Collection<Long> ids, @Param("role") UserRoleType role);
 }
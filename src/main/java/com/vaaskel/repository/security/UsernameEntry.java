@@ -0,0 +1,7 @@
+package com.vaaskel.repository.security;
+
+/**
+ * Minimal projection of a user row used to (re)build in-memory username indexes.
+ */
+public record UsernameEntry(Long id, String username) {
+}
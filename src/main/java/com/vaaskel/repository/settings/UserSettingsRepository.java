@@ -2,10 +2,18 @@ package com.vaaskel.repository.settings;
 
 import com.vaaskel.domain.security.entity.User;
 import com.vaaskel.domain.settings.UserSettings;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserSettingsRepository extends JpaRepository<UserSettings, Long> {
+    // Read on every theme lookup; cached results are invalidated by any write to USER_SETTINGS
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserSettings> findByUser(User user);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<UserSettings> findByUserId(Long userId);
 }
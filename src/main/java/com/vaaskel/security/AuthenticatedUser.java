@@ -1,32 +1,114 @@
 package com.vaaskel.security;
 
 import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.settings.ThemePreference;
+import com.vaaskel.domain.settings.UserSettings;
 import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.settings.UserSettingsRepository;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.spring.security.AuthenticationContext;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Component
 public class AuthenticatedUser {
 
     private final UserRepository userRepository;
+    private final UserSettingsRepository userSettingsRepository;
     private final AuthenticationContext authenticationContext;
+    private final UserChangeTracker userChangeTracker;
+    private final Duration revalidateAfter;
 
-    public AuthenticatedUser(UserRepository userRepository, AuthenticationContext authenticationContext) {
+    public AuthenticatedUser(UserRepository userRepository, UserSettingsRepository userSettingsRepository,
+            AuthenticationContext authenticationContext, UserChangeTracker userChangeTracker,
+            @Value("${vaaskel.security.snapshot-revalidate-after:30s}") Duration revalidateAfter) {
         this.userRepository = userRepository;
+        this.userSettingsRepository = userSettingsRepository;
         this.authenticationContext = authenticationContext;
+        this.userChangeTracker = userChangeTracker;
+        this.revalidateAfter = revalidateAfter;
     }
 
+    /**
+     * Loads the live entity of the authenticated user. Prefer {@link #getSnapshot()} unless the entity
+     * itself is needed, this always hits the database.
+     */
     @Transactional(readOnly = true)
     public Optional<User> get() {
         return authenticationContext.getAuthenticatedUser(UserDetails.class)
                 .flatMap(ud -> userRepository.findByUsername(ud.getUsername()));
     }
 
+    /**
+     * Returns the snapshot of the authenticated user cached in the current Vaadin session.
+     * It is loaded once per session and reloaded after the user has been changed through the services
+     * (see {@link UserChangeTracker}) or a different user has logged in. Writes that bypass the tracker
+     * (e.g. {@link UserRepository#updatePasswordHash}, other nodes, direct SQL) are caught by comparing the
+     * snapshot version with the database, at most once per {@code vaaskel.security.snapshot-revalidate-after}.
+     */
+    public Optional<AuthenticatedUserSnapshot> getSnapshot() {
+        Optional<String> username = authenticationContext.getPrincipalName();
+        if (username.isEmpty()) {
+            return Optional.empty();
+        }
+
+        VaadinSession session = VaadinSession.getCurrent();
+        AuthenticatedUserSnapshot cached = session != null ? session.getAttribute(AuthenticatedUserSnapshot.class)
+                : null;
+
+        if (cached != null && cached.username().equals(username.get())
+                && cached.changeStamp() == userChangeTracker.stamp(cached.username())) {
+            Instant now = Instant.now();
+            if (now.isBefore(cached.verifiedAt().plus(revalidateAfter))) {
+                return Optional.of(cached);
+            }
+            if (Objects.equals(userRepository.findVersionByUsername(cached.username()).orElse(null),
+                    cached.version())) {
+                return Optional.of(store(session, cached.withVerifiedAt(now)));
+            }
+        }
+
+        Optional<AuthenticatedUserSnapshot> loaded = loadSnapshot(username.get());
+        store(session, loaded.orElse(null));
+        return loaded;
+    }
+
+    public boolean isAuthenticated() {
+        return authenticationContext.isAuthenticated();
+    }
+
     public void logout() {
         authenticationContext.logout();
     }
+
+    private static AuthenticatedUserSnapshot store(VaadinSession session, AuthenticatedUserSnapshot snapshot) {
+        if (session != null && session.hasLock()) {
+            session.setAttribute(AuthenticatedUserSnapshot.class, snapshot);
+        }
+        return snapshot;
+    }
+
+    private Optional<AuthenticatedUserSnapshot> loadSnapshot(String username) {
+        // Read the stamp first: a change committed while loading then forces another reload
+        long stamp = userChangeTracker.stamp(username);
+
+        return userRepository.findByUsername(username).map(user -> {
+            ThemePreference theme = userSettingsRepository.findByUserId(user.getId())
+                    .map(UserSettings::getThemePreference)
+                    .orElse(ThemePreference.SYSTEM);
+
+            return new AuthenticatedUserSnapshot(user.getId(), user.getUsername(), user.getVersion(),
+                    user.getRoles().stream().map(UserRole::getUserRoleType).collect(Collectors.toSet()),
+                    theme, stamp, Instant.now());
+        });
+    }
 }
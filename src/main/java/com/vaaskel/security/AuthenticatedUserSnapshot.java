@@ -0,0 +1,39 @@
+package com.vaaskel.security;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.domain.settings.ThemePreference;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable view of the authenticated user, kept per Vaadin session by {@link AuthenticatedUser}.
+ * Holds what the UI needs on every UI init without touching the database.
+ *
+ * @param version     version of the user row the snapshot was loaded from
+ * @param changeStamp value of {@link UserChangeTracker#stamp(String)} when the snapshot was loaded
+ * @param verifiedAt  when {@code version} was last confirmed against the database
+ */
+public record AuthenticatedUserSnapshot(Long id, String username, Long version, Set<UserRoleType> roles,
+        ThemePreference themePreference, long changeStamp, Instant verifiedAt) implements Serializable {
+
+    public AuthenticatedUserSnapshot {
+        EnumSet<UserRoleType> copy = EnumSet.noneOf(UserRoleType.class);
+        if (roles != null) {
+            copy.addAll(roles);
+        }
+        roles = Collections.unmodifiableSet(copy);
+        themePreference = themePreference != null ? themePreference : ThemePreference.SYSTEM;
+    }
+
+    public AuthenticatedUserSnapshot withVerifiedAt(Instant instant) {
+        return new AuthenticatedUserSnapshot(id, username, version, roles, themePreference, changeStamp, instant);
+    }
+
+    public boolean hasRole(UserRoleType role) {
+        return roles.contains(role);
+    }
+}
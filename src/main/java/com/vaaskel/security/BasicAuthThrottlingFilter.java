@@ -0,0 +1,63 @@
+package com.vaaskel.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Applies the {@link LoginThrottle} limits to HTTP Basic credentials (actuator endpoints) before they
+ * reach the authentication filter, so the same username/address budget covers both login paths.
+ * Rejected attempts are answered like failed credentials.
+ */
+public class BasicAuthThrottlingFilter extends OncePerRequestFilter {
+
+    private static final String BASIC_PREFIX = "Basic ";
+
+    private final LoginThrottle loginThrottle;
+    private final boolean trustForwardedFor;
+
+    public BasicAuthThrottlingFilter(LoginThrottle loginThrottle, boolean trustForwardedFor) {
+        this.loginThrottle = loginThrottle;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authorization == null || !authorization.regionMatches(true, 0, BASIC_PREFIX, 0, BASIC_PREFIX.length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String username = username(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (!loginThrottle.tryAcquire(username, LoginThrottlingFilter.clientAddress(request, trustForwardedFor))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"Realm\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Username of the Basic credentials, or null if they are malformed (the address limit still applies
+     * and the authentication filter rejects them).
+     */
+    static String username(String authorization) {
+        try {
+            String credentials = new String(Base64.getDecoder().decode(
+                    authorization.substring(BASIC_PREFIX.length()).trim()), StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon >= 0 ? credentials.substring(0, colon) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.vaaskel.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Protects the login form against credential stuffing.
+ * <p>
+ * Login attempts are rate limited per username and per client address with token buckets, checked by
+ * {@link LoginThrottlingFilter} before any database lookup or password hash. Username buckets are kept
+ * per exact username, so spraying random usernames cannot drain the bucket of a real account; address
+ * buckets are striped. Independently, a username
+ * that fails {@code max-failures} times within {@code lock-duration} is locked for that duration;
+ * {@link VaaskelUserDetailsService} reports such users as locked, so no hash is verified for them either.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final TokenBucketMap usernameBuckets;
+    private final TokenBucketStripes addressBuckets;
+    private final int maxFailures;
+
+    private final Cache<String, AtomicInteger> failures;
+    private final Cache<String, Boolean> locks;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder usernameRejections = new LongAdder();
+    private final LongAdder addressRejections = new LongAdder();
+    private final LongAdder lockouts = new LongAdder();
+
+    public LoginThrottle(@Value("${vaaskel.security.login-throttle.stripes:4096}") int stripes,
+            @Value("${vaaskel.security.login-throttle.username.max-keys:100000}") int usernameMaxKeys,
+            @Value("${vaaskel.security.login-throttle.username.capacity:5}") int usernameCapacity,
+            @Value("${vaaskel.security.login-throttle.username.refill-interval:30s}") Duration usernameRefill,
+            @Value("${vaaskel.security.login-throttle.address.capacity:30}") int addressCapacity,
+            @Value("${vaaskel.security.login-throttle.address.refill-interval:2s}") Duration addressRefill,
+            @Value("${vaaskel.security.login-throttle.max-failures:10}") int maxFailures,
+            @Value("${vaaskel.security.login-throttle.lock-duration:15m}") Duration lockDuration) {
+        this.usernameBuckets = new TokenBucketMap(usernameMaxKeys, usernameCapacity, usernameRefill);
+        this.addressBuckets = new TokenBucketStripes(stripes, addressCapacity, addressRefill);
+        this.maxFailures = maxFailures;
+        this.failures = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(lockDuration).build();
+        this.locks = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(lockDuration).build();
+    }
+
+    /**
+     * Takes a token for the username and the client address.
+     *
+     * @return false if the attempt must be rejected
+     */
+    public boolean tryAcquire(String username, String clientAddress) {
+        attempts.increment();
+
+        if (clientAddress != null && !addressBuckets.tryAcquire(clientAddress)) {
+            addressRejections.increment();
+            return false;
+        }
+        if (username != null && !username.isBlank() && !usernameBuckets.tryAcquire(normalize(username))) {
+            usernameRejections.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isLocked(String username) {
+        return username != null && locks.getIfPresent(normalize(username)) != null;
+    }
+
+    @EventListener
+    public void onFailure(AuthenticationFailureBadCredentialsEvent event) {
+        String key = normalize(event.getAuthentication().getName());
+
+        int count = failures.get(key, _ -> new AtomicInteger()).incrementAndGet();
+        if (count >= maxFailures && locks.asMap().putIfAbsent(key, Boolean.TRUE) == null) {
+            failures.invalidate(key);
+            lockouts.increment();
+            LOGGER.warn("Login for {} temporarily locked after {} failed attempts", key, count);
+        }
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        failures.invalidate(normalize(event.getAuthentication().getName()));
+    }
+
+    public long attemptCount() {
+        return attempts.sum();
+    }
+
+    public long usernameRejectionCount() {
+        return usernameRejections.sum();
+    }
+
+    public long addressRejectionCount() {
+        return addressRejections.sum();
+    }
+
+    public long lockoutCount() {
+        return lockouts.sum();
+    }
+
+    public long lockedUserCount() {
+        return locks.estimatedSize();
+    }
+
+    private static String normalize(String username) {
+        return username != null ? username.trim().toLowerCase(Locale.ROOT) : "";
+    }
+}
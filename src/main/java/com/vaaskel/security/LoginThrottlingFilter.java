@@ -0,0 +1,59 @@
+package com.vaaskel.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects login form submissions over the {@link LoginThrottle} limits before they reach the
+ * authentication filter. Rejected attempts are answered like a failed login.
+ */
+public class LoginThrottlingFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/login";
+
+    private final LoginThrottle loginThrottle;
+    private final boolean trustForwardedFor;
+
+    public LoginThrottlingFilter(LoginThrottle loginThrottle, boolean trustForwardedFor) {
+        this.loginThrottle = loginThrottle;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod()) || !LOGIN_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!loginThrottle.tryAcquire(request.getParameter("username"), clientAddress(request, trustForwardedFor))) {
+            response.sendRedirect(request.getContextPath() + LOGIN_PATH + "?error");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Our nginx appends the peer address to {@code X-Forwarded-For}, so the rightmost entry is the one
+     * set by the proxy; entries left of it are client-controlled.
+     */
+    static String clientAddress(HttpServletRequest request, boolean trustForwardedFor) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                String last = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+                if (!last.isEmpty()) {
+                    return last;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
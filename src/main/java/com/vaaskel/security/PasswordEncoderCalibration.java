@@ -0,0 +1,80 @@
+package com.vaaskel.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Builds the application password encoder with a bcrypt work factor tuned to the hardware it runs on.
+ * <p>
+ * The cost of one hash is measured at the minimum strength; since every strength step doubles the work,
+ * the strength closest to (but not above) the target latency follows directly. New hashes are stored with
+ * an algorithm prefix ({@code {bcrypt}$2a$<cost>$...}), so the algorithm and cost can move forward later
+ * without a migration: outdated hashes are reported by {@link PasswordEncoder#upgradeEncoding(String)}
+ * and rehashed on the next successful login.
+ */
+public final class PasswordEncoderCalibration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordEncoderCalibration.class);
+
+    static final String BCRYPT_ID = "bcrypt";
+
+    private static final int SAMPLES = 3;
+
+    private PasswordEncoderCalibration() {
+        // Utility class, no instances allowed
+    }
+
+    /**
+     * Creates a delegating encoder whose bcrypt strength is calibrated to the target latency.
+     */
+    public static PasswordEncoder calibrated(Duration targetLatency, int minStrength, int maxStrength) {
+        return delegating(calibrateBcryptStrength(targetLatency, minStrength, maxStrength));
+    }
+
+    /**
+     * Creates a delegating encoder for the given bcrypt strength. Hashes without prefix (stored before
+     * prefixes were introduced) are still verified as bcrypt and flagged for upgrade.
+     */
+    public static PasswordEncoder delegating(int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Returns the highest bcrypt strength whose hashing time stays within the target latency.
+     */
+    public static int calibrateBcryptStrength(Duration targetLatency, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode("calibration"); // warm-up
+
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long median = Math.max(1, samples[SAMPLES / 2]);
+
+        int strength = minStrength;
+        long expected = median;
+        while (strength < maxStrength && expected * 2 <= targetLatency.toNanos()) {
+            strength++;
+            expected *= 2;
+        }
+
+        LOGGER.info("Password hashing calibrated: bcrypt strength {} (~{} ms per hash, target {} ms)", strength,
+                expected / 1_000_000, targetLatency.toMillis());
+        return strength;
+    }
+}
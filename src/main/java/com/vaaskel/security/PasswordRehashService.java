@@ -0,0 +1,97 @@
+package com.vaaskel.security;
+
+import com.vaaskel.repository.security.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves outdated password hashes forward after a successful login, off the request thread.
+ * <p>
+ * Work is queued on a single background thread with a small bounded queue; when it is full the
+ * rehash is simply skipped and retried on a later login. The update is a compare-and-set on the old
+ * hash, so a concurrent password reset always wins.
+ */
+@Service
+public class PasswordRehashService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private static final int QUEUE_CAPACITY = 100;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "password-rehash");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public PasswordRehashService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            UserDetailsCache userDetailsCache, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedules a rehash of the user's password if none is pending for that user.
+     *
+     * @param username    user that just logged in
+     * @param currentHash stored hash that was verified
+     * @param rawPassword password presented at login
+     */
+    public void rehashAsync(String username, String currentHash, String rawPassword) {
+        if (!pending.add(username)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    rehash(username, currentHash, rawPassword);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Password rehash for {} failed", username, e);
+                } finally {
+                    pending.remove(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(username);
+        }
+    }
+
+    private void rehash(String username, String currentHash, String rawPassword) {
+        String newHash = passwordEncoder.encode(rawPassword);
+
+        Integer updated = transactionTemplate.execute(
+                _ -> userRepository.updatePasswordHash(username, currentHash, newHash));
+
+        if (updated != null && updated > 0) {
+            userDetailsCache.evict(username);
+            LOGGER.debug("Password hash of {} upgraded", username);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.vaaskel.security;
+
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Form login provider that hands outdated password hashes to {@link PasswordRehashService}
+ * instead of re-encoding them on the request thread (as the built-in password upgrade would).
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordRehashService passwordRehashService;
+
+    public RehashingAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+            PasswordRehashService passwordRehashService) {
+        super(userDetailsService);
+        setPasswordEncoder(passwordEncoder);
+        this.passwordEncoder = passwordEncoder;
+        this.passwordRehashService = passwordRehashService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+            UserDetails user) {
+        Object credentials = authentication.getCredentials();
+
+        if (credentials != null && user.getPassword() != null && passwordEncoder.upgradeEncoding(user.getPassword())) {
+            passwordRehashService.rehashAsync(user.getUsername(), user.getPassword(), credentials.toString());
+        }
+
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
@@ -4,15 +4,22 @@ import static com.vaadin.flow.spring.security.VaadinSecurityConfigurer.vaadin;
 
 import com.vaaskel.ui.views.login.LoginView;
 import com.vaadin.flow.spring.security.VaadinAwareSecurityContextHolderStrategyConfiguration;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
 
 @EnableWebSecurity
 @Configuration
@@ -20,12 +27,50 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfiguration {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${vaaskel.security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${vaaskel.security.password.min-strength:10}") int minStrength,
+            @Value("${vaaskel.security.password.max-strength:14}") int maxStrength) {
+        return PasswordEncoderCalibration.calibrated(targetLatency, minStrength, maxStrength);
+    }
+
+    @Bean
+    public RehashingAuthenticationProvider authenticationProvider(VaaskelUserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder, PasswordRehashService passwordRehashService) {
+        return new RehashingAuthenticationProvider(userDetailsService, passwordEncoder, passwordRehashService);
     }
 
+    /**
+     * Actuator endpoints: health and info are public (probes), everything else, including the
+     * Prometheus scrape endpoint, requires an ADMIN user via HTTP Basic. Basic credentials go through
+     * the same {@link LoginThrottle} as the login form. Stateless, so scrapes do not create sessions.
+     */
     @Bean
-    public SecurityFilterChain vaadinSecurityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http, LoginThrottle loginThrottle,
+            @Value("${vaaskel.security.login-throttle.trust-forwarded-for:false}") boolean trustForwardedFor)
+            throws Exception {
+        http.addFilterBefore(new BasicAuthThrottlingFilter(loginThrottle, trustForwardedFor),
+                BasicAuthenticationFilter.class);
+
+        http.securityMatcher("/actuator/**")
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                        .anyRequest().hasRole("ADMIN"))
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain vaadinSecurityFilterChain(HttpSecurity http, LoginThrottle loginThrottle,
+            @Value("${vaaskel.security.login-throttle.trust-forwarded-for:false}") boolean trustForwardedFor)
+            throws Exception {
+
+        http.addFilterBefore(new LoginThrottlingFilter(loginThrottle, trustForwardedFor),
+                UsernamePasswordAuthenticationFilter.class);
 
         http.authorizeHttpRequests(authorize -> authorize.requestMatchers("/images/*.png", "/*.css").permitAll());
 
@@ -0,0 +1,78 @@
+package com.vaaskel.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login outcomes plus the counters of {@link LoginThrottle} and {@link UserDetailsCache}.
+ */
+@Component
+public class SecurityMetrics implements MeterBinder {
+
+    private final LoginThrottle loginThrottle;
+    private final UserDetailsCache userDetailsCache;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public SecurityMetrics(LoginThrottle loginThrottle, UserDetailsCache userDetailsCache) {
+        this.loginThrottle = loginThrottle;
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        successes.increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        failures.increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("vaaskel.login", successes, LongAdder::sum)
+                .tag("result", "success")
+                .register(registry);
+        FunctionCounter.builder("vaaskel.login", failures, LongAdder::sum)
+                .tag("result", "failure")
+                .register(registry);
+
+        FunctionCounter.builder("vaaskel.login.throttle.attempts", loginThrottle, LoginThrottle::attemptCount)
+                .register(registry);
+        FunctionCounter.builder("vaaskel.login.throttle.rejected", loginThrottle, LoginThrottle::usernameRejectionCount)
+                .tag("key", "username")
+                .register(registry);
+        FunctionCounter.builder("vaaskel.login.throttle.rejected", loginThrottle, LoginThrottle::addressRejectionCount)
+                .tag("key", "address")
+                .register(registry);
+        FunctionCounter.builder("vaaskel.login.throttle.lockouts", loginThrottle, LoginThrottle::lockoutCount)
+                .register(registry);
+        Gauge.builder("vaaskel.login.throttle.locked", loginThrottle, LoginThrottle::lockedUserCount)
+                .register(registry);
+
+        Gauge.builder("vaaskel.user-details-cache.size", userDetailsCache, UserDetailsCache::size)
+                .register(registry);
+        FunctionCounter.builder("vaaskel.user-details-cache.requests", userDetailsCache, UserDetailsCache::hitCount)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("vaaskel.user-details-cache.requests", userDetailsCache, UserDetailsCache::missCount)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("vaaskel.user-details-cache.evictions", userDetailsCache,
+                        UserDetailsCache::evictionCount)
+                .register(registry);
+        FunctionCounter.builder("vaaskel.user-details-cache.invalidations", userDetailsCache,
+                        UserDetailsCache::invalidationCount)
+                .register(registry);
+    }
+}
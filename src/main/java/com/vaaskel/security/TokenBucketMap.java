@@ -0,0 +1,70 @@
+package com.vaaskel.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed exactly, unlike {@link TokenBucketStripes} where colliding keys share a bucket.
+ * Used where sharing would let an attacker drain a victim's bucket by spraying other keys.
+ * <p>
+ * Buckets live in a bounded Caffeine cache. A bucket untouched for the burst window is full again and is
+ * dropped, which is the same as never having been used; when the cache is full, its frequency-based
+ * eviction keeps the buckets of repeatedly attempted keys over one-off keys.
+ */
+final class TokenBucketMap {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long intervalMillis;
+    private final long burstMillis;
+    private final LongSupplier clockMillis;
+    private final long origin;
+
+    TokenBucketMap(int maximumKeys, int capacity, Duration refillInterval) {
+        this(maximumKeys, capacity, refillInterval, System::currentTimeMillis);
+    }
+
+    TokenBucketMap(int maximumKeys, int capacity, Duration refillInterval, LongSupplier clockMillis) {
+        this.intervalMillis = TokenBucketStripes.intervalMillis(refillInterval);
+        this.burstMillis = TokenBucketStripes.burstMillis(capacity, intervalMillis);
+        this.clockMillis = clockMillis;
+        this.origin = clockMillis.getAsLong();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maximumKeys))
+                .expireAfterAccess(burstMillis, TimeUnit.MILLISECONDS)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clockMillis.getAsLong()))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return false if the bucket is empty
+     */
+    boolean tryAcquire(String key) {
+        long now = clockMillis.getAsLong() - origin;
+        AtomicLong bucket = buckets.get(key, _ -> new AtomicLong());
+
+        while (true) {
+            long state = bucket.get();
+            long next = TokenBucketStripes.take(state, now, intervalMillis, burstMillis);
+
+            if (next < 0) {
+                return false;
+            }
+            if (bucket.compareAndSet(state, next)) {
+                return true;
+            }
+        }
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,88 @@
+package com.vaaskel.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, fixed-size set of token buckets. Keys are hashed onto a power-of-two number of stripes,
+ * so memory stays constant no matter how many distinct keys an attacker sends; colliding keys simply
+ * share a bucket.
+ * <p>
+ * Every stripe is a single {@code long} updated by CAS. It holds the bucket's deficit in milliseconds
+ * (one token = one refill interval, 0 = full) in the low {@value #DEFICIT_BITS} bits and the time of the
+ * last update in the remaining high bits. Working in time units keeps the refill exact without fractions.
+ */
+final class TokenBucketStripes {
+
+    private static final int DEFICIT_BITS = 24;
+    private static final long DEFICIT_MASK = (1L << DEFICIT_BITS) - 1;
+
+    private final AtomicLongArray stripes;
+    private final int mask;
+    private final long intervalMillis;
+    private final long burstMillis;
+    private final LongSupplier clockMillis;
+    private final long origin;
+
+    TokenBucketStripes(int stripeCount, int capacity, Duration refillInterval) {
+        this(stripeCount, capacity, refillInterval, System::currentTimeMillis);
+    }
+
+    TokenBucketStripes(int stripeCount, int capacity, Duration refillInterval, LongSupplier clockMillis) {
+        int size = Integer.highestOneBit(Math.clamp(stripeCount, 1, 1 << 20));
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.intervalMillis = intervalMillis(refillInterval);
+        this.burstMillis = burstMillis(capacity, intervalMillis);
+        this.clockMillis = clockMillis;
+        this.origin = clockMillis.getAsLong();
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return false if the bucket is empty
+     */
+    boolean tryAcquire(Object key) {
+        int index = spread(key.hashCode()) & mask;
+        long now = clockMillis.getAsLong() - origin;
+
+        while (true) {
+            long state = stripes.get(index);
+            long next = take(state, now, intervalMillis, burstMillis);
+
+            if (next < 0) {
+                return false;
+            }
+            if (stripes.compareAndSet(index, state, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Bucket state after taking one token at {@code now} (milliseconds since the origin), or -1 if the
+     * bucket is empty. Shared with {@link TokenBucketMap}, which stores the same state per exact key.
+     */
+    static long take(long state, long now, long intervalMillis, long burstMillis) {
+        long deficit = Math.max(0, (state & DEFICIT_MASK) - (now - (state >>> DEFICIT_BITS)));
+
+        if (deficit + intervalMillis > burstMillis) {
+            return -1;
+        }
+        return (now << DEFICIT_BITS) | (deficit + intervalMillis);
+    }
+
+    static long intervalMillis(Duration refillInterval) {
+        return Math.clamp(refillInterval.toMillis(), 1, DEFICIT_MASK);
+    }
+
+    static long burstMillis(int capacity, long intervalMillis) {
+        return Math.min(Math.max(1, capacity) * intervalMillis, DEFICIT_MASK);
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x45d9f3b;
+    }
+}
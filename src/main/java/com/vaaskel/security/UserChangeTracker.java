@@ -0,0 +1,26 @@
+package com.vaaskel.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-username change counter used to detect stale in-memory copies of a user
+ * (e.g. {@link AuthenticatedUserSnapshot}) without asking the database.
+ * Writers call {@link #markChanged(String)} after committing a change to the user.
+ */
+@Component
+public class UserChangeTracker {
+
+    private final ConcurrentHashMap<String, Long> stamps = new ConcurrentHashMap<>();
+
+    public void markChanged(String username) {
+        if (username != null) {
+            stamps.merge(username, 1L, Long::sum);
+        }
+    }
+
+    public long stamp(String username) {
+        return username != null ? stamps.getOrDefault(username, 0L) : 0L;
+    }
+}
@@ -0,0 +1,83 @@
+package com.vaaskel.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache in front of the user details lookup on the login path.
+ * <p>
+ * Entries are never handed out directly: Spring Security erases the credentials of the returned
+ * principal after authentication, so every caller gets its own copy.
+ * Writers ({@code UserServiceImpl}) evict entries explicitly, so lock and role changes take effect
+ * immediately instead of after the TTL.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> cache;
+    private final LongAdder invalidations = new LongAdder();
+
+    public UserDetailsCache(@Value("${vaaskel.security.user-details-cache.max-size:10000}") long maxSize,
+            @Value("${vaaskel.security.user-details-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a copy of the cached user details, loading them on a miss.
+     * Exceptions of the loader (e.g. user not found) are propagated and nothing is cached.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        UserDetails cached = cache.get(username, loader);
+        return User.withUserDetails(cached).build();
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+            invalidations.increment();
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        invalidations.increment();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Entries dropped because of size or TTL limits.
+     */
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Explicit evictions triggered by user changes.
+     */
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+}
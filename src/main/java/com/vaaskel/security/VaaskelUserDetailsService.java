@@ -4,23 +4,44 @@ import com.vaaskel.repository.security.UserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class VaaskelUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final LoginThrottle loginThrottle;
 
-    public VaaskelUserDetailsService(UserRepository userRepository) {
+    public VaaskelUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache,
+            LoginThrottle loginThrottle) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.loginThrottle = loginThrottle;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // No transaction here: a cache hit must not open one. The repository call runs in its own
+        // read-only transaction and fetches the roles through the entity graph.
+        UserDetails details = userDetailsCache.get(username, this::loadFromDatabase);
+
+        // Temporarily locked after repeated failures: rejected before the password is verified
+        if (details.isAccountNonLocked() && loginThrottle.isLocked(username)) {
+            return org.springframework.security.core.userdetails.User.withUserDetails(details)
+                    .accountLocked(true)
+                    .build();
+        }
+        return details;
+    }
+
+    private UserDetails loadFromDatabase(String username) {
         var user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("No user present with username: " + username));
 
+        return toUserDetails(user);
+    }
+
+    static UserDetails toUserDetails(com.vaaskel.domain.security.entity.User user) {
         var authorities = user.getRoles().stream()
                 .map(r -> r.getUserRoleType().name())
                 .map(n -> n.startsWith("ROLE_") ? n : "ROLE_" + n)
@@ -5,7 +5,10 @@ import com.vaaskel.domain.security.entity.User;
 import com.vaaskel.domain.security.entity.UserRole;
 import com.vaaskel.repository.security.UserRepository;
 import com.vaaskel.repository.security.UserRoleRepository;
-import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -25,7 +28,9 @@ public class ServiceStart {
         this.encoder = encoder;
     }
 
-    @PostConstruct
+    // After the context refresh, so an AOT cache training run (spring.context.exit=onRefresh) needs no database
+    @EventListener(ApplicationStartedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // before StartupWarmUp
     public void firstStart() {
         User user;
         UserRole role;
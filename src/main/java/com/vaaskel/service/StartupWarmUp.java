@@ -0,0 +1,164 @@
+package com.vaaskel.service;
+
+import com.vaadin.flow.i18n.I18NProvider;
+import com.vaaskel.api.user.UserDto;
+import com.vaaskel.repository.datasource.ReadWriteRoutingDataSource;
+import com.vaaskel.service.user.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Warms up the JIT, the connection pool and the caches before the node takes traffic.
+ * <p>
+ * Runs on {@link ApplicationStartedEvent} after {@link ServiceStart}. Spring Boot only switches the
+ * readiness state to {@code ACCEPTING_TRAFFIC} after the started listeners returned, so
+ * {@code /actuator/health/readiness} reports the node as not ready until the warm-up is done.
+ * Failures are logged and never prevent the start.
+ */
+@Component
+public class StartupWarmUp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupWarmUp.class);
+
+    private static final int PAGE_SIZE = 50;
+    private static final String[] FILTERS = {"a", "e", "admin"};
+
+    private final DataSource dataSource;
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final I18NProvider i18nProvider;
+
+    private final boolean enabled;
+    private final int connections;
+    private final int iterations;
+    private final int passwordIterations;
+
+    public StartupWarmUp(DataSource dataSource, UserService userService, PasswordEncoder passwordEncoder,
+            I18NProvider i18nProvider,
+            @Value("${vaaskel.warm-up.enabled:true}") boolean enabled,
+            @Value("${vaaskel.warm-up.connections:5}") int connections,
+            @Value("${vaaskel.warm-up.iterations:50}") int iterations,
+            @Value("${vaaskel.warm-up.password-iterations:3}") int passwordIterations) {
+        this.dataSource = dataSource;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.i18nProvider = i18nProvider;
+        this.enabled = enabled;
+        this.connections = connections;
+        this.iterations = iterations;
+        this.passwordIterations = passwordIterations;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        fillConnectionPools();
+        runStep("user queries", this::exerciseUserQueries);
+        runStep("password encoder", this::exercisePasswordEncoder);
+        runStep("message bundles", this::preloadMessages);
+
+        LOGGER.info("Warm-up finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void runStep(String name, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Warm-up step '{}' failed, continuing", name, ex);
+        }
+    }
+
+    /**
+     * Fills the pool, or with replica routing the primary and every replica pool; a replica that is down
+     * only fails its own step.
+     */
+    private void fillConnectionPools() {
+        if (dataSource instanceof ReadWriteRoutingDataSource routing) {
+            List<DataSource> pools = routing.pools();
+            for (int i = 0; i < pools.size(); i++) {
+                DataSource pool = pools.get(i);
+                runStep(i == 0 ? "primary connection pool" : "replica " + (i - 1) + " connection pool",
+                        () -> fillConnectionPool(pool));
+            }
+        } else {
+            runStep("connection pool", () -> fillConnectionPool(dataSource));
+        }
+    }
+
+    /**
+     * Holds several connections at the same time, so the pool has to open them now instead of
+     * on the first concurrent requests.
+     */
+    private void fillConnectionPool(DataSource pool) {
+        List<Connection> borrowed = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = pool.getConnection();
+                borrowed.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not open warm-up connection", ex);
+        } finally {
+            borrowed.forEach(StartupWarmUp::closeQuietly);
+        }
+    }
+
+    // Same calls as the user grid and the edit view: query plans, mappings and the second-level cache
+    private void exerciseUserQueries() {
+        for (int i = 0; i < iterations; i++) {
+            userService.countUsers();
+            List<UserDto> page = userService.findUsers(0, PAGE_SIZE);
+            userService.findUsersAfterId(null, PAGE_SIZE);
+            userService.findUsersByChangedAt(null, true, null, null, PAGE_SIZE);
+
+            String filter = FILTERS[i % FILTERS.length];
+            userService.countUsersByUsername(filter);
+            userService.findUsersByUsername(filter, 0, PAGE_SIZE);
+
+            if (!page.isEmpty()) {
+                userService.findUserById(page.getFirst().getId());
+            }
+        }
+    }
+
+    private void exercisePasswordEncoder() {
+        if (passwordIterations <= 0) {
+            return;
+        }
+        String hash = passwordEncoder.encode("warm-up");
+        for (int i = 0; i < passwordIterations; i++) {
+            passwordEncoder.matches("warm-up", hash);
+        }
+    }
+
+    private void preloadMessages() {
+        for (Locale locale : i18nProvider.getProvidedLocales()) {
+            i18nProvider.getTranslation("main.app.name", locale);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            LOGGER.debug("Could not close warm-up connection", ex);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.vaaskel.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for keeping in-memory state in line with the database.
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+        // Utility class, no instances allowed
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, or immediately if there is none.
+     * Keeps in-memory structures from seeing changes that are later rolled back.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
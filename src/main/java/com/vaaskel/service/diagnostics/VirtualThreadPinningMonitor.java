@@ -0,0 +1,111 @@
+package com.vaaskel.service.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} JFR events while the app runs on virtual threads.
+ * <p>
+ * A virtual thread that blocks while pinned to its carrier (native frames, class initialization, ...)
+ * takes a carrier out of the scheduler for that time. Every pinning longer than the threshold is counted
+ * in {@code vaaskel.virtual-threads.pinned}; the first event per code location is logged with its stack
+ * trace, later ones from the same location only at debug level.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 25;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${vaaskel.diagnostics.virtual-thread-pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("vaaskel.virtual-threads.pinned")
+                .description("Virtual thread pinnings longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+
+        LOGGER.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = site(frames);
+
+        if (reportedSites.add(site)) {
+            LOGGER.warn("Virtual thread pinned for {} ms at {}:\n{}", event.getDuration().toMillis(), site,
+                    frames.stream().limit(LOGGED_FRAMES).map(frame -> "\tat " + describe(frame))
+                            .collect(Collectors.joining("\n")));
+        } else {
+            LOGGER.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    /**
+     * The first frame outside the JDK: the top frames are always the JDK's park code, the same for every
+     * pinning site. A trace without application frames is identified by the hash of all its frames.
+     */
+    private static String site(List<RecordedFrame> frames) {
+        if (frames.isEmpty()) {
+            return "unknown";
+        }
+        return frames.stream()
+                .map(VirtualThreadPinningMonitor::describe)
+                .filter(frame -> !isJdkFrame(frame))
+                .findFirst()
+                .orElseGet(() -> "jdk#" + Integer.toHexString(frames.stream()
+                        .map(VirtualThreadPinningMonitor::describe).toList().hashCode()));
+    }
+
+    private static boolean isJdkFrame(String frame) {
+        return frame.startsWith("java.") || frame.startsWith("jdk.") || frame.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+                + frame.getLineNumber();
+    }
+}
@@ -5,17 +5,25 @@ import com.vaaskel.domain.settings.ThemePreference;
 import com.vaaskel.domain.settings.UserSettings;
 import com.vaaskel.repository.security.UserRepository;
 import com.vaaskel.repository.settings.UserSettingsRepository;
+import com.vaaskel.security.UserChangeTracker;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import static com.vaaskel.service.TransactionHooks.afterCommit;
+
 @Service
+@Timed(value = "vaaskel.service.settings", histogram = true)
 public class UserSettingsService {
     private final UserRepository userRepository;
     private final UserSettingsRepository userSettingsRepository;
+    private final UserChangeTracker userChangeTracker;
 
-    public UserSettingsService(UserRepository userRepository, UserSettingsRepository repo) {
+    public UserSettingsService(UserRepository userRepository, UserSettingsRepository repo,
+            UserChangeTracker userChangeTracker) {
         this.userRepository = userRepository;
         this.userSettingsRepository = repo;
+        this.userChangeTracker = userChangeTracker;
     }
 
     @Transactional
@@ -37,5 +45,15 @@ public class UserSettingsService {
         UserSettings settings = getOrCreate(user);
         settings.setThemePreference(pref);
         userSettingsRepository.save(settings);
+        // The theme is part of the session snapshot of the user
+        String username = user.getUsername();
+        afterCommit(() -> userChangeTracker.markChanged(username));
+    }
+
+    @Transactional
+    public void updateTheme(Long userId, ThemePreference pref) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        updateTheme(user, pref);
     }
 }
@@ -0,0 +1,30 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+
+/**
+ * Changes that can be applied to many users at once, see {@link UserBulkService}.
+ */
+public enum UserBulkAction {
+    ENABLE,
+    DISABLE,
+    LOCK,
+    UNLOCK,
+    EXPIRE_CREDENTIALS,
+    /** Requires a role */
+    ADD_ROLE,
+    /** Requires a role */
+    REMOVE_ROLE;
+
+    public boolean requiresRole() {
+        return this == ADD_ROLE || this == REMOVE_ROLE;
+    }
+
+    /**
+     * True if the action can take away sign-in or admin rights; such actions never apply to the acting user.
+     */
+    public boolean revokesAccess(UserRoleType role) {
+        return this == DISABLE || this == LOCK || this == EXPIRE_CREDENTIALS
+                || (this == REMOVE_ROLE && role == UserRoleType.ADMIN);
+    }
+}
@@ -0,0 +1,28 @@
+package com.vaaskel.service.user;
+
+/**
+ * A bulk action failed part-way. Chunks committed before the failure stay applied.
+ */
+public class UserBulkException extends RuntimeException {
+
+    private final int committedChunks;
+    private final UserBulkResult committed;
+
+    public UserBulkException(int committedChunks, UserBulkResult committed, Throwable cause) {
+        super("Bulk action failed after " + committedChunks + " committed chunks (" + committed.changedUsers()
+                + " users changed)", cause);
+        this.committedChunks = committedChunks;
+        this.committed = committed;
+    }
+
+    public int getCommittedChunks() {
+        return committedChunks;
+    }
+
+    /**
+     * Users processed and changed by the committed chunks.
+     */
+    public UserBulkResult getCommitted() {
+        return committed;
+    }
+}
@@ -0,0 +1,13 @@
+package com.vaaskel.service.user;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a bulk action.
+ *
+ * @param selectedUsers number of users the action was applied to
+ * @param changedUsers  number of users that actually changed (e.g. not already disabled)
+ * @param elapsed       wall-clock time of the action
+ */
+public record UserBulkResult(long selectedUsers, long changedUsers, Duration elapsed) {
+}
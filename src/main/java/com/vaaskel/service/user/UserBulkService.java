@@ -0,0 +1,229 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserListEntry;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import com.vaaskel.security.UserChangeTracker;
+import com.vaaskel.security.UserDetailsCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Applies a {@link UserBulkAction} to many users (e.g. locking accounts after an incident) with
+ * set-based statements instead of loading and saving every user.
+ * <p>
+ * The selection is processed in chunks of {@code vaaskel.bulk.chunk-size} ids, one transaction per chunk
+ * with one {@code UPDATE} (flags) or one {@code UPDATE} plus one {@code INSERT ... SELECT}/{@code DELETE}
+ * (roles). Only rows that actually change are written; their {@code version} is incremented, so edit views
+ * still holding the old state fail with an optimistic locking error instead of overwriting the change.
+ * Hibernate invalidates the affected second-level cache regions for bulk statements; the login cache and
+ * session snapshots of the changed users are refreshed after each chunk.
+ * <p>
+ * Actions that revoke access skip the acting user, so an admin cannot lock themselves (or the last admin)
+ * out with an empty selection. {@link #submit} runs actions on their own small pool
+ * ({@code vaaskel.bulk.threads}), away from the pools serving reads.
+ */
+@Service
+public class UserBulkService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserBulkService.class);
+
+    private final UserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final UserChangeTracker userChangeTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    private final TaskDecorator taskDecorator;
+
+    public UserBulkService(UserRepository userRepository, UserRoleRepository userRoleRepository,
+            UserDetailsCache userDetailsCache, UserChangeTracker userChangeTracker,
+            PlatformTransactionManager transactionManager, ObjectProvider<TaskDecorator> taskDecorator,
+            @Value("${vaaskel.bulk.chunk-size:1000}") int chunkSize,
+            @Value("${vaaskel.bulk.threads:1}") int threads,
+            @Value("${vaaskel.bulk.queue-capacity:10}") int queueCapacity) {
+        this.userRepository = userRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.userChangeTracker = userChangeTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.taskDecorator = taskDecorator.getIfUnique(() -> task -> task);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "user-bulk-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs {@link #apply} on the bulk pool. The future fails with {@link UserBulkException} if the action
+     * failed after some chunks were committed, or with a {@code RejectedExecutionException} if the pool
+     * is saturated.
+     */
+    public CompletableFuture<UserBulkResult> submit(UserBulkAction action, UserRoleType role,
+            UserSelection selection, Long actingUserId, LongConsumer progress) {
+        return CompletableFuture.supplyAsync(() -> apply(action, role, selection, actingUserId, progress),
+                task -> executor.execute(taskDecorator.decorate(task)));
+    }
+
+    /**
+     * @param role         role to add or remove, only for {@link UserBulkAction#requiresRole()} actions
+     * @param actingUserId user performing the action, skipped by actions that revoke access (may be null)
+     * @param progress     receives the number of users processed so far after every chunk (may be null)
+     * @throws UserBulkException if a chunk failed; earlier chunks stay committed
+     */
+    public UserBulkResult apply(UserBulkAction action, UserRoleType role, UserSelection selection,
+            Long actingUserId, LongConsumer progress) {
+        if (action == null || selection == null) {
+            throw new IllegalArgumentException("action and selection must not be null");
+        }
+        if (action.requiresRole() && role == null) {
+            throw new IllegalArgumentException("role must not be null for " + action);
+        }
+
+        Long excludedId = action.revokesAccess(role) ? actingUserId : null;
+
+        long start = System.nanoTime();
+        long processed = 0;
+        long selected = 0;
+        long changed = 0;
+        int chunks = 0;
+
+        long[] sortedIds = selection.isIds()
+                ? selection.ids().stream().mapToLong(Long::longValue).sorted().toArray()
+                : null;
+        long lastId = Long.MIN_VALUE;
+        Chunk chunk;
+        try {
+            while ((chunk = nextChunk(selection, sortedIds, lastId)) != null) {
+                List<UserListEntry> users = chunk.users().stream()
+                        .filter(u -> !Objects.equals(u.id(), excludedId))
+                        .toList();
+                List<Long> ids = users.stream().map(UserListEntry::id).toList();
+                LocalDateTime now = LocalDateTime.now();
+
+                if (!ids.isEmpty()) {
+                    changed += transactionTemplate.execute(_ -> applyToChunk(action, role, ids, now));
+                    users.forEach(this::userChanged);
+                    chunks++;
+                }
+
+                selected += users.size();
+                processed += chunk.requested();
+                lastId = chunk.lastId();
+                if (progress != null) {
+                    progress.accept(processed);
+                }
+            }
+        } catch (RuntimeException e) {
+            UserBulkResult committed = new UserBulkResult(selected, changed,
+                    Duration.ofNanos(System.nanoTime() - start));
+            LOGGER.warn("Bulk action {}{} failed after {} committed chunks ({} users changed)", action,
+                    role != null ? " " + role : "", chunks, changed, e);
+            throw new UserBulkException(chunks, committed, e);
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        LOGGER.info("Bulk action {}{} applied to {} users, {} changed in {} ms", action,
+                role != null ? " " + role : "", selected, changed, elapsed.toMillis());
+        return new UserBulkResult(selected, changed, elapsed);
+    }
+
+    /**
+     * Number of users in the selection, for progress feedback.
+     */
+    public long count(UserSelection selection) {
+        if (selection.isIds()) {
+            return selection.ids().size();
+        }
+        return selection.usernameFilter() == null ? userRepository.count()
+                : userRepository.countByUsernameContainingIgnoreCase(selection.usernameFilter());
+    }
+
+    /**
+     * Users of one chunk; {@code lastId} is the keyset for the next one and {@code requested} the number of
+     * users the chunk covers (selected ids include deleted users, which are not returned).
+     */
+    private record Chunk(List<UserListEntry> users, long lastId, int requested) {
+    }
+
+    // Keyset over the selection; ids and usernames do not change, so later chunks are not affected by earlier ones.
+    // Returns null when the selection is exhausted.
+    private Chunk nextChunk(UserSelection selection, long[] sortedIds, long lastId) {
+        if (sortedIds != null) {
+            int found = Arrays.binarySearch(sortedIds, lastId);
+            int from = found >= 0 ? found + 1 : -found - 1;
+            if (from >= sortedIds.length) {
+                return null;
+            }
+            long[] ids = Arrays.copyOfRange(sortedIds, from, Math.min(sortedIds.length, from + chunkSize));
+            // Advances over the requested ids even if all of them were deleted in the meantime
+            return new Chunk(userRepository.findEntriesByIdInOrderByIdAsc(LongStream.of(ids).boxed().toList()),
+                    ids[ids.length - 1], ids.length);
+        }
+
+        List<UserListEntry> users = selection.usernameFilter() == null
+                ? userRepository.findEntriesByIdGreaterThanOrderByIdAsc(lastId, Limit.of(chunkSize))
+                : userRepository.findEntriesByIdGreaterThanAndUsernameContainingIgnoreCaseOrderByIdAsc(lastId,
+                        selection.usernameFilter(), Limit.of(chunkSize));
+        return users.isEmpty() ? null : new Chunk(users, users.getLast().id(), users.size());
+    }
+
+    private int applyToChunk(UserBulkAction action, UserRoleType role, List<Long> ids, LocalDateTime now) {
+        return switch (action) {
+            case ENABLE -> userRepository.updateEnabled(ids, true, now);
+            case DISABLE -> userRepository.updateEnabled(ids, false, now);
+            case LOCK -> userRepository.updateAccountNonLocked(ids, false, now);
+            case UNLOCK -> userRepository.updateAccountNonLocked(ids, true, now);
+            case EXPIRE_CREDENTIALS -> userRepository.updateCredentialsNonExpired(ids, false, now);
+            case ADD_ROLE -> {
+                int bumped = userRepository.incrementVersionWithoutRole(ids, role, now);
+                userRoleRepository.insertRoleForUsers(ids, role, now);
+                yield bumped;
+            }
+            case REMOVE_ROLE -> {
+                int bumped = userRepository.incrementVersionWithRole(ids, role, now);
+                userRoleRepository.deleteRoleForUsers(ids, role);
+                yield bumped;
+            }
+        };
+    }
+
+    private void userChanged(UserListEntry user) {
+        userDetailsCache.evict(user.username());
+        userChangeTracker.markChanged(user.username());
+    }
+}
@@ -0,0 +1,85 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Streams {@link UserImportRow}s from CSV without loading the whole file.
+ * <p>
+ * Format: {@code username,password[,roles]} with roles separated by {@code |} (e.g. {@code ADMIN|USER}).
+ * Blank lines, lines starting with {@code #} and a header line starting with "username" are skipped.
+ * Malformed rows are passed on with missing values (unknown roles as {@code null} roles)
+ * and reported by the import instead of failing the stream.
+ */
+public final class UserCsvReader {
+
+    private UserCsvReader() {
+        // Utility class, no instances allowed
+    }
+
+    /**
+     * Returns a lazy stream of rows. Closing the stream closes the reader.
+     */
+    public static Stream<UserImportRow> rows(Reader reader) {
+        BufferedReader buffered = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+        AtomicLong lineNumber = new AtomicLong();
+
+        return buffered.lines()
+                .map(text -> new Line(lineNumber.incrementAndGet(), text))
+                .filter(UserCsvReader::isDataLine)
+                .map(UserCsvReader::parse)
+                .onClose(() -> {
+                    try {
+                        buffered.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static boolean isDataLine(Line line) {
+        String trimmed = line.text().trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return false;
+        }
+        return !(line.number() == 1 && trimmed.toLowerCase(Locale.ROOT).startsWith("username"));
+    }
+
+    private static UserImportRow parse(Line line) {
+        String[] columns = line.text().split(",", -1);
+
+        String username = columns.length > 0 ? columns[0].trim() : null;
+        String password = columns.length > 1 ? columns[1].trim() : null;
+        Set<UserRoleType> roles = columns.length > 2 ? parseRoles(columns[2]) : EnumSet.noneOf(UserRoleType.class);
+
+        return new UserImportRow(line.number(), username, password, roles);
+    }
+
+    private static Set<UserRoleType> parseRoles(String value) {
+        EnumSet<UserRoleType> roles = EnumSet.noneOf(UserRoleType.class);
+        for (String part : value.split("\\|")) {
+            String name = part.trim().toUpperCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                roles.add(UserRoleType.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return roles;
+    }
+
+    private record Line(long number, String text) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.vaaskel.service.user;
+
+/**
+ * A row that could not be imported. The rest of the import is not affected.
+ */
+public record UserImportError(long lineNumber, String username, String message) {
+}
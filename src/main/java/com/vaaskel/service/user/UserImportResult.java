@@ -0,0 +1,21 @@
+package com.vaaskel.service.user;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import.
+ *
+ * @param processedRows number of rows read from the source
+ * @param importedRows  number of users created
+ * @param errors        rows that were skipped, with the reason
+ * @param elapsed       wall-clock time of the import
+ */
+public record UserImportResult(long processedRows, long importedRows, List<UserImportError> errors,
+        Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return processedRows * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,16 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+
+import java.util.Set;
+
+/**
+ * One user to be created by {@link UserImportService}.
+ *
+ * @param lineNumber  position in the source (used for error reporting)
+ * @param username    login name
+ * @param rawPassword initial password, hashed during import
+ * @param roles       roles to assign; empty means {@link UserRoleType#USER}, null means the source value was invalid
+ */
+public record UserImportRow(long lineNumber, String username, String rawPassword, Set<UserRoleType> roles) {
+}
@@ -0,0 +1,228 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Reader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Creates large numbers of users (e.g. when onboarding a new site) in chunks.
+ * <p>
+ * Rows are streamed, so the source is never held in memory as a whole. Per chunk, passwords are hashed
+ * in parallel, then users and roles are inserted in one transaction using Hibernate JDBC batching
+ * ({@code hibernate.jdbc.batch_size}) and the pooled {@code INCREMENT BY 50} sequences, so ids need no
+ * extra round trips. Invalid rows are reported and skipped; if a chunk fails as a whole it is retried row
+ * by row so a single bad row never aborts the job.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UsernameSearchIndex usernameIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService hashExecutor;
+    private final int chunkSize;
+
+    public UserImportService(UserRepository userRepository, UserRoleRepository userRoleRepository,
+            PasswordEncoder passwordEncoder, UsernameSearchIndex usernameIndex, EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${vaaskel.import.chunk-size:500}") int chunkSize,
+            @Value("${vaaskel.import.hash-threads:0}") int hashThreads) {
+        this.userRepository = userRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.usernameIndex = usernameIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Imports users from CSV, see {@link UserCsvReader} for the format.
+     */
+    public UserImportResult importCsv(Reader reader) {
+        try (Stream<UserImportRow> rows = UserCsvReader.rows(reader)) {
+            return importUsers(rows);
+        }
+    }
+
+    /**
+     * Imports a stream of rows. Other sources (e.g. JSON) only need to map their records to
+     * {@link UserImportRow}.
+     */
+    public UserImportResult importUsers(Stream<UserImportRow> rows) {
+        long start = System.nanoTime();
+
+        List<UserImportError> errors = new ArrayList<>();
+        long processed = 0;
+        long imported = 0;
+
+        Iterator<UserImportRow> iterator = rows.iterator();
+        List<UserImportRow> chunk = new ArrayList<>(chunkSize);
+
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                processed += chunk.size();
+                imported += importChunk(chunk, errors);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        UserImportResult result = new UserImportResult(processed, imported, List.copyOf(errors), elapsed);
+
+        LOGGER.info("User import finished: {} rows, {} imported, {} errors in {} ms ({} rows/s)", processed, imported,
+                errors.size(), elapsed.toMillis(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private int importChunk(List<UserImportRow> chunk, List<UserImportError> errors) {
+        List<UserImportRow> valid = validate(chunk, errors);
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        List<PreparedUser> prepared = hash(valid);
+
+        try {
+            List<User> saved = transactionTemplate.execute(_ -> insert(prepared));
+            saved.forEach(user -> usernameIndex.put(user.getId(), user.getUsername()));
+            return saved.size();
+        } catch (RuntimeException chunkFailure) {
+            LOGGER.debug("Chunk insert failed, retrying row by row", chunkFailure);
+            return insertOneByOne(prepared, errors);
+        }
+    }
+
+    private List<UserImportRow> validate(List<UserImportRow> chunk, List<UserImportError> errors) {
+        Set<String> seen = new HashSet<>();
+        List<UserImportRow> candidates = new ArrayList<>(chunk.size());
+
+        for (UserImportRow row : chunk) {
+            String username = row.username() != null ? row.username().trim() : "";
+
+            if (username.isEmpty()) {
+                errors.add(new UserImportError(row.lineNumber(), row.username(), "username must not be blank"));
+            } else if (username.length() > 100) {
+                errors.add(new UserImportError(row.lineNumber(), username, "username is longer than 100 characters"));
+            } else if (row.rawPassword() == null || row.rawPassword().isBlank()) {
+                errors.add(new UserImportError(row.lineNumber(), username, "password must not be blank"));
+            } else if (row.roles() == null) {
+                errors.add(new UserImportError(row.lineNumber(), username, "invalid roles"));
+            } else if (!seen.add(username)) {
+                errors.add(new UserImportError(row.lineNumber(), username, "duplicate username in import"));
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> existing = new HashSet<>(
+                userRepository.findExistingUsernames(candidates.stream().map(r -> r.username().trim()).toList()));
+
+        List<UserImportRow> valid = new ArrayList<>(candidates.size());
+        for (UserImportRow row : candidates) {
+            if (existing.contains(row.username().trim())) {
+                errors.add(new UserImportError(row.lineNumber(), row.username().trim(), "username already exists"));
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    private List<PreparedUser> hash(List<UserImportRow> rows) {
+        List<CompletableFuture<PreparedUser>> futures = rows.stream()
+                .map(row -> CompletableFuture.supplyAsync(
+                        () -> new PreparedUser(row, passwordEncoder.encode(row.rawPassword())), hashExecutor))
+                .toList();
+
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private List<User> insert(List<PreparedUser> prepared) {
+        List<User> users = new ArrayList<>(prepared.size());
+        List<UserRole> roles = new ArrayList<>(prepared.size());
+
+        for (PreparedUser p : prepared) {
+            User user = new User(p.row().username().trim(), p.passwordHash());
+            users.add(user);
+
+            Set<UserRoleType> rowRoles = p.row().roles().isEmpty() ? EnumSet.of(UserRoleType.USER)
+                    : EnumSet.copyOf(p.row().roles());
+            rowRoles.forEach(rt -> roles.add(new UserRole(rt, user)));
+        }
+
+        userRepository.saveAll(users);
+        userRoleRepository.saveAll(roles);
+
+        // Send the batches now and drop the chunk from the persistence context to keep memory flat
+        entityManager.flush();
+        entityManager.clear();
+
+        return users;
+    }
+
+    private int insertOneByOne(List<PreparedUser> prepared, List<UserImportError> errors) {
+        int imported = 0;
+        for (PreparedUser p : prepared) {
+            try {
+                List<User> saved = transactionTemplate.execute(_ -> insert(List.of(p)));
+                saved.forEach(user -> usernameIndex.put(user.getId(), user.getUsername()));
+                imported++;
+            } catch (RuntimeException e) {
+                errors.add(new UserImportError(p.row().lineNumber(), p.row().username(), e.getMessage()));
+            }
+        }
+        return imported;
+    }
+
+    private record PreparedUser(UserImportRow row, String passwordHash) {
+    }
+}
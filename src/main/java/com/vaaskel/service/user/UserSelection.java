@@ -0,0 +1,27 @@
+package com.vaaskel.service.user;
+
+import java.util.Set;
+
+/**
+ * Users a bulk action applies to: either explicit ids, or all users matching a username filter
+ * (substring, case-insensitive, null for all users).
+ */
+public record UserSelection(Set<Long> ids, String usernameFilter) {
+
+    public UserSelection {
+        ids = ids != null ? Set.copyOf(ids) : null;
+        usernameFilter = usernameFilter != null && !usernameFilter.isBlank() ? usernameFilter.trim() : null;
+    }
+
+    public static UserSelection ofIds(Set<Long> ids) {
+        return new UserSelection(ids, null);
+    }
+
+    public static UserSelection matching(String usernameFilter) {
+        return new UserSelection(null, usernameFilter);
+    }
+
+    public boolean isIds() {
+        return ids != null;
+    }
+}
@@ -3,12 +3,20 @@ package com.vaaskel.service.user;
 import com.vaaskel.api.user.UserDto;
 import com.vaaskel.domain.security.entity.UserRoleType;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 /**
  * Service for querying user data for the UI and API layers.
+ * <p>
+ * All list methods return DTOs with their roles filled, loaded with one extra query per page.
  */
 public interface UserService {
     /**
@@ -33,6 +41,12 @@ public interface UserService {
      */
     long countUsers();
 
+    /**
+     * Returns a cheap estimate of the total number of users that does not run a COUNT(*) query
+     * whenever it can avoid it. Intended for UIs that only need an approximate size up front.
+     */
+    long estimateUserCount();
+
 
     /**
      * Returns the total number of users filtered by username.
@@ -52,11 +66,74 @@ public interface UserService {
      */
     List<UserDto> findUsersByUsername(String username, int offset, int limit);
 
+    /**
+     * Keyset variant of {@link #findUsers(int, int)}: fetches the users following the last row seen,
+     * ordered by id. The cost does not grow with the position in the result.
+     *
+     * @param lastSeenId id of the last row already fetched, or null to start at the beginning
+     * @param limit      maximum number of rows to return
+     * @return list of user DTOs ordered by id
+     */
+    List<UserDto> findUsersAfterId(Long lastSeenId, int limit);
+
+    /**
+     * Keyset variant of {@link #findUsersByUsername(String, int, int)}.
+     *
+     * @param username   username filter (substring, case-insensitive)
+     * @param lastSeenId id of the last row already fetched, or null to start at the beginning
+     * @param limit      maximum number of rows to return
+     * @return list of user DTOs ordered by id
+     */
+    List<UserDto> findUsersByUsernameAfterId(String username, Long lastSeenId, int limit);
+
+    /**
+     * Keyset fetch ordered by (changedAt, id), e.g. for the grid sorted by the changedAt column.
+     *
+     * @param username      username filter (substring, case-insensitive; null or blank for all users)
+     * @param newestFirst   true for (changedAt desc, id desc), false for ascending
+     * @param lastChangedAt changedAt of the last row already fetched, or null to start at the beginning
+     * @param lastSeenId    id of the last row already fetched (ignored if lastChangedAt is null)
+     * @param limit         maximum number of rows to return
+     * @return list of user DTOs in the requested order
+     */
+    List<UserDto> findUsersByChangedAt(String username, boolean newestFirst, LocalDateTime lastChangedAt,
+            Long lastSeenId, int limit);
+
+    /**
+     * Offset variant of {@link #findUsersByChangedAt(String, boolean, LocalDateTime, Long, int)}, for jumps.
+     *
+     * @param offset zero-based offset of the first row
+     */
+    List<UserDto> findUsersByChangedAt(String username, boolean newestFirst, int offset, int limit);
+
 
     UserDto createUser(UserDto dto);
 
+    /**
+     * Bulk-creates users from a stream of rows in chunks (see {@link UserImportService}).
+     * Invalid rows are reported in the result and do not abort the import.
+     */
+    UserImportResult importUsers(Stream<UserImportRow> rows);
+
     UserDto saveUser(UserDto user);
 
+    /**
+     * Applies an action to many users with set-based statements on the bulk pool (see {@link UserBulkService}).
+     * Actions that revoke access skip the acting user.
+     *
+     * @param role         role to add or remove, only for role actions
+     * @param actingUserId user performing the action (may be null)
+     * @param progress     receives the number of users processed so far (may be null), from the bulk thread
+     * @return completes with the result, or fails with {@link UserBulkException} after a partial run
+     */
+    CompletableFuture<UserBulkResult> applyBulkAction(UserBulkAction action, UserRoleType role,
+            UserSelection selection, Long actingUserId, LongConsumer progress);
+
+    /**
+     * Returns the number of users a bulk action on the selection would process.
+     */
+    long countSelection(UserSelection selection);
+
     /**
      * Admin-only: resets a user's password without requiring the current password.
      *
@@ -68,5 +145,13 @@ public interface UserService {
 
     Set<UserRoleType> getUserRoles(Long userId);
 
+    /**
+     * Loads the roles of many users with a single query.
+     *
+     * @param userIds ids of the users
+     * @return roles per user id; users without roles map to an empty set
+     */
+    Map<Long, Set<UserRoleType>> getUserRoles(Collection<Long> userIds);
+
     void setUserRoles(Long userId, Set<UserRoleType> roles);
 }
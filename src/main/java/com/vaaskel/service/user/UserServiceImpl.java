@@ -4,45 +4,79 @@ import com.vaaskel.api.user.UserDto;
 import com.vaaskel.domain.security.entity.User;
 import com.vaaskel.domain.security.entity.UserRole;
 import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserListEntry;
 import com.vaaskel.repository.security.UserRepository;
 import com.vaaskel.repository.security.UserRoleRepository;
+import com.vaaskel.security.UserChangeTracker;
+import com.vaaskel.security.UserDetailsCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import org.springframework.data.domain.*;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import static com.vaaskel.service.TransactionHooks.afterCommit;
 
 @Service
+@Timed(value = "vaaskel.service.user", histogram = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UsernameSearchIndex usernameIndex;
+    private final UserDetailsCache userDetailsCache;
+    private final UserChangeTracker userChangeTracker;
+    private final UserImportService userImportService;
+    private final UserBulkService userBulkService;
+    private final EntityManagerFactory entityManagerFactory;
 
     public UserServiceImpl(UserRepository userRepository, UserRoleRepository userRoleRepository,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder, UsernameSearchIndex usernameIndex, UserDetailsCache userDetailsCache,
+            UserChangeTracker userChangeTracker, UserImportService userImportService, UserBulkService userBulkService,
+            EntityManagerFactory entityManagerFactory) {
         this.userRepository = userRepository;
         this.userRoleRepository = userRoleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.usernameIndex = usernameIndex;
+        this.userDetailsCache = userDetailsCache;
+        this.userChangeTracker = userChangeTracker;
+        this.userImportService = userImportService;
+        this.userBulkService = userBulkService;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> findUsers(int offset, int limit) {
         if (limit <= 0)
             return List.of();
-        int page = offset / limit;
 
-        Pageable pageable = PageRequest.of(page, limit, Sort.by(Sort.Direction.ASC, "id"));
+        Pageable pageable = new OffsetLimitRequest(Math.max(0, offset), limit, Sort.by(Sort.Direction.ASC, "id"));
 
-        return userRepository.findAll(pageable).stream().map(this::toDtoBasic).toList();
+        return toDtosWithRoles(userRepository.findEntriesBy(pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countUsers() {
         return userRepository.count();
     }
 
     @Override
+    public long estimateUserCount() {
+        // The username index holds one entry per user and is maintained on every create
+        return usernameIndex.isReady() ? usernameIndex.size() : countUsers();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDto> findUsersByUsername(String username, int offset, int limit) {
         if (limit <= 0)
             return List.of();
@@ -51,20 +85,98 @@ public class UserServiceImpl implements UserService {
         if (filter.isEmpty())
             return findUsers(offset, limit);
 
-        int page = offset / limit;
-        Pageable pageable = PageRequest.of(page, limit, Sort.by(Sort.Direction.ASC, "id"));
+        if (usernameIndex.isReady())
+            return loadOrderedById(usernameIndex.search(filter, offset, limit));
 
-        return userRepository.findByUsernameContainingIgnoreCase(filter, pageable).stream().map(this::toDtoBasic)
-                .toList();
+        Pageable pageable = new OffsetLimitRequest(Math.max(0, offset), limit, Sort.by(Sort.Direction.ASC, "id"));
+
+        return toDtosWithRoles(userRepository.findEntriesByUsernameContainingIgnoreCase(filter, pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public long countUsersByUsername(String username) {
         String filter = username != null ? username.trim() : "";
-        return filter.isEmpty() ? countUsers() : userRepository.countByUsernameContainingIgnoreCase(filter);
+        if (filter.isEmpty())
+            return countUsers();
+
+        return usernameIndex.isReady() ? usernameIndex.count(filter)
+                : userRepository.countByUsernameContainingIgnoreCase(filter);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> findUsersAfterId(Long lastSeenId, int limit) {
+        if (limit <= 0)
+            return List.of();
+
+        long after = lastSeenId != null ? lastSeenId : Long.MIN_VALUE;
+
+        return toDtosWithRoles(userRepository.findEntriesByIdGreaterThanOrderByIdAsc(after, Limit.of(limit)));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> findUsersByUsernameAfterId(String username, Long lastSeenId, int limit) {
+        if (limit <= 0)
+            return List.of();
+
+        String filter = username != null ? username.trim() : "";
+        if (filter.isEmpty())
+            return findUsersAfterId(lastSeenId, limit);
+
+        if (usernameIndex.isReady())
+            return loadOrderedById(usernameIndex.searchAfter(filter, lastSeenId, limit));
+
+        long after = lastSeenId != null ? lastSeenId : Long.MIN_VALUE;
+
+        return toDtosWithRoles(userRepository.findEntriesByIdGreaterThanAndUsernameContainingIgnoreCaseOrderByIdAsc(
+                after, filter, Limit.of(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> findUsersByChangedAt(String username, boolean newestFirst, LocalDateTime lastChangedAt,
+            Long lastSeenId, int limit) {
+        if (limit <= 0)
+            return List.of();
+
+        if (lastChangedAt == null)
+            return findUsersByChangedAt(username, newestFirst, 0, limit);
+
+        String pattern = containsPattern(username);
+        List<UserListEntry> users = newestFirst
+                ? userRepository.findEntriesChangedBefore(pattern, lastChangedAt,
+                        lastSeenId != null ? lastSeenId : Long.MAX_VALUE, Limit.of(limit))
+                : userRepository.findEntriesChangedAfter(pattern, lastChangedAt,
+                        lastSeenId != null ? lastSeenId : Long.MIN_VALUE, Limit.of(limit));
+
+        return toDtosWithRoles(users);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> findUsersByChangedAt(String username, boolean newestFirst, int offset, int limit) {
+        if (limit <= 0)
+            return List.of();
+
+        Sort.Direction direction = newestFirst ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Pageable pageable = new OffsetLimitRequest(Math.max(0, offset), limit, Sort.by(direction, "changedAt", "id"));
+
+        String filter = username != null ? username.trim() : "";
+        return toDtosWithRoles(filter.isEmpty()
+                ? userRepository.findEntriesBy(pageable)
+                : userRepository.findEntriesByUsernameContainingIgnoreCase(filter, pageable));
+    }
+
+    // LIKE pattern for a case-insensitive substring match, '!' escapes the wildcards
+    private static String containsPattern(String username) {
+        String filter = username != null ? username.trim() : "";
+        return "%" + filter.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<UserDto> findUserById(Long id) {
         if (id == null)
             return Optional.empty();
@@ -92,6 +204,7 @@ public class UserServiceImpl implements UserService {
         entity.setReadOnly(dto.isReadOnly());
 
         User saved = userRepository.save(entity);
+        userChanged(saved.getId(), saved.getUsername(), null);
 
         Set<UserRoleType> roles = dto.getRoles();
         if (roles == null || roles.isEmpty()) {
@@ -113,7 +226,9 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(dto.getId())
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + dto.getId()));
 
+        String previousUsername = user.getUsername();
         fromDtoBasic(dto, user);
+        userChanged(user.getId(), user.getUsername(), previousUsername);
 
         if (dto.getRoles() != null) {
             setUserRoles(user.getId(), dto.getRoles());
@@ -145,6 +260,7 @@ public class UserServiceImpl implements UserService {
         fromDtoBasic(dto, entity);
 
         User saved = userRepository.save(entity);
+        userChanged(saved.getId(), saved.getUsername(), null);
 
         Set<UserRoleType> roles = dto.getRoles();
         if (roles == null || roles.isEmpty()) {
@@ -158,6 +274,25 @@ public class UserServiceImpl implements UserService {
     }
 
 
+    @Override
+    public UserImportResult importUsers(Stream<UserImportRow> rows) {
+        // Not transactional: the import commits chunk by chunk
+        return userImportService.importUsers(rows);
+    }
+
+    @Override
+    public CompletableFuture<UserBulkResult> applyBulkAction(UserBulkAction action, UserRoleType role,
+            UserSelection selection, Long actingUserId, LongConsumer progress) {
+        // Not transactional: one transaction per chunk, on the bulk pool
+        return userBulkService.submit(action, role, selection, actingUserId, progress);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countSelection(UserSelection selection) {
+        return userBulkService.count(selection);
+    }
+
     @Override
     @Transactional
     public UserDto resetPassword(Long userId, String rawPassword) {
@@ -172,6 +307,7 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(rawPassword));
 
         User saved = userRepository.save(user);
+        userChanged(saved.getId(), saved.getUsername(), null);
 
         UserDto dto = toDtoBasic(saved);
         dto.setRoles(getUserRoles(saved.getId()));
@@ -179,41 +315,125 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Set<UserRoleType> getUserRoles(Long userId) {
         if (userId == null)
             return EnumSet.noneOf(UserRoleType.class);
 
-        return userRoleRepository.findAllByUserId(userId).stream().map(UserRole::getUserRoleType)
-                .collect(() -> EnumSet.noneOf(UserRoleType.class), EnumSet::add, EnumSet::addAll);
+        return toRoleSet(userRoleRepository.findAllByUserId(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Set<UserRoleType>> getUserRoles(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty())
+            return Map.of();
+
+        Map<Long, Set<UserRoleType>> rolesByUser = new HashMap<>();
+        userIds.forEach(id -> rolesByUser.put(id, EnumSet.noneOf(UserRoleType.class)));
+
+        userRoleRepository.findAssignmentsByUserIdIn(userIds)
+                .forEach(a -> rolesByUser.get(a.userId()).add(a.roleType()));
+
+        return rolesByUser;
     }
 
+    /**
+     * Replaces the roles of a user by applying only the difference to the current assignment:
+     * removed roles are deleted in one statement, added roles are inserted, unchanged ones are left alone.
+     * Nothing is written when the roles did not change.
+     */
     @Transactional
     public void setUserRoles(Long userId, Set<UserRoleType> roles) {
         if (userId == null) {
             throw new IllegalArgumentException("userId must not be null");
         }
 
-        userRoleRepository.deleteByUserId(userId);
-        userRoleRepository.flush(); // ensure deletion before adding new roles
+        EnumSet<UserRoleType> target = EnumSet.noneOf(UserRoleType.class);
+        if (roles != null) {
+            target.addAll(roles);
+        }
+
+        List<UserRole> current = userRoleRepository.findAllByUserId(userId);
 
-        if (roles == null || roles.isEmpty()) {
-            return; // ← nothing to add
+        List<UserRole> toRemove = current.stream()
+                .filter(role -> !target.contains(role.getUserRoleType()))
+                .toList();
+
+        EnumSet<UserRoleType> toAdd = EnumSet.copyOf(target);
+        current.forEach(role -> toAdd.remove(role.getUserRoleType()));
+
+        if (toRemove.isEmpty() && toAdd.isEmpty()) {
+            return; // ← nothing changed
         }
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
 
-        EnumSet<UserRoleType> unique = EnumSet.copyOf(roles);
+        if (!toRemove.isEmpty()) {
+            userRoleRepository.deleteAllInBatch(toRemove);
+        }
+
+        if (!toAdd.isEmpty()) {
+            userRoleRepository.saveAll(
+                    toAdd.stream()
+                            .map(rt -> new UserRole(rt, user))
+                            .toList()
+            );
+        }
 
-        userRoleRepository.saveAll(
-                unique.stream()
-                        .map(rt -> new UserRole(rt, user))
-                        .toList()
-        );
+        userChanged(user.getId(), user.getUsername(), null);
     }
 
 
-    private UserDto toDtoBasic(User user) {
+    /**
+     * Maps a page of user rows to DTOs and fills their roles with a single IN query.
+     */
+    private List<UserDto> toDtosWithRoles(List<UserListEntry> users) {
+        if (users.isEmpty())
+            return List.of();
+
+        List<UserDto> dtos = users.stream().map(UserServiceImpl::toDto).toList();
+        Map<Long, Set<UserRoleType>> rolesByUser = getUserRoles(dtos.stream().map(UserDto::getId).toList());
+        dtos.forEach(dto -> dto.setRoles(rolesByUser.get(dto.getId())));
+
+        return dtos;
+    }
+
+    private List<UserDto> loadOrderedById(List<Long> ids) {
+        if (ids.isEmpty())
+            return List.of();
+
+        return toDtosWithRoles(userRepository.findEntriesByIdInOrderByIdAsc(ids));
+    }
+
+    /**
+     * Refreshes the in-memory views of a user (username index, login cache, session snapshots,
+     * cached roles collection) once the change is committed.
+     *
+     * @param previousUsername username before the change if it may have been renamed, otherwise null
+     */
+    private void userChanged(Long id, String username, String previousUsername) {
+        afterCommit(() -> {
+            // Roles are saved through UserRoleRepository, which does not touch the cached User.roles
+            entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class)
+                    .evictCollectionData(User.ROLES_COLLECTION_ROLE, id);
+            usernameIndex.put(id, username);
+            userDetailsCache.evict(username);
+            userChangeTracker.markChanged(username);
+            if (previousUsername != null && !previousUsername.equals(username)) {
+                userDetailsCache.evict(previousUsername);
+                userChangeTracker.markChanged(previousUsername);
+            }
+        });
+    }
+
+    static EnumSet<UserRoleType> toRoleSet(Collection<UserRole> roles) {
+        return roles.stream().map(UserRole::getUserRoleType)
+                .collect(() -> EnumSet.noneOf(UserRoleType.class), EnumSet::add, EnumSet::addAll);
+    }
+
+    static UserDto toDtoBasic(User user) {
         UserDto dto = new UserDto();
 
         dto.setId(user.getId());
@@ -235,7 +455,28 @@ public class UserServiceImpl implements UserService {
     }
 
 
-    private void fromDtoBasic(UserDto dto, User entity) {
+    static UserDto toDto(UserListEntry entry) {
+        UserDto dto = new UserDto();
+
+        dto.setId(entry.id());
+        dto.setVersion(entry.version());
+        dto.setCreatedAt(entry.createdAt());
+        dto.setChangedAt(entry.changedAt());
+
+        dto.setUsername(entry.username());
+
+        dto.setVisible(entry.visible());
+        dto.setReadOnly(entry.readOnly());
+
+        dto.setEnabled(entry.enabled());
+        dto.setAccountNonLocked(entry.accountNonLocked());
+        dto.setAccountNonExpired(entry.accountNonExpired());
+        dto.setCredentialsNonExpired(entry.credentialsNonExpired());
+
+        return dto;
+    }
+
+    static void fromDtoBasic(UserDto dto, User entity) {
         // defensive
         if (dto == null || entity == null) {
             throw new IllegalArgumentException("dto/entity must not be null");
@@ -0,0 +1,305 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UsernameEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+/**
+ * In-process trigram index over {@code users.user_name} for case-insensitive substring search.
+ * <p>
+ * Each username is split into all of its 3-character substrings; every trigram points to a sorted
+ * primitive array of the user ids containing it (8 bytes per entry instead of a boxed skip-list node).
+ * A search walks the smallest posting list of the needle's trigrams in id order and verifies each
+ * candidate, so results come back in id order (for paging) and counts are exact.
+ * Needles shorter than three characters fall back to a scan of the in-memory usernames.
+ * <p>
+ * The index is rebuilt from the database once the application is ready and kept current by
+ * {@link UserServiceImpl}. Writes arriving while a rebuild is loading are buffered and replayed on top of
+ * the loaded snapshot, so they are not overwritten by older database state. Until the first build has
+ * finished, {@link #isReady()} returns false and callers should query the database instead.
+ */
+@Component
+public class UsernameSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsernameSearchIndex.class);
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentSkipListMap<Long, String> usernamesById = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Posting> postings = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+
+    // Guards all index writes and the rebuild buffer
+    private final Object writeLock = new Object();
+    private final List<Runnable> writesDuringRebuild = new ArrayList<>();
+    private boolean rebuilding;
+
+    private volatile boolean ready;
+
+    public UsernameSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+
+        synchronized (writeLock) {
+            rebuilding = true;
+        }
+
+        List<UsernameEntry> entries = List.of();
+        try {
+            entries = userRepository.findAllUsernames();
+        } finally {
+            synchronized (writeLock) {
+                entries.forEach(entry -> doPut(entry.id(), entry.username()));
+                // Writes committed while loading are newer than (or equal to) the loaded snapshot
+                writesDuringRebuild.forEach(Runnable::run);
+                writesDuringRebuild.clear();
+                rebuilding = false;
+            }
+        }
+
+        ready = true;
+
+        LOGGER.info("Username search index built with {} entries in {} ms", entries.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or updates the username of a user.
+     */
+    public void put(Long id, String username) {
+        if (id == null || username == null) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            if (rebuilding) {
+                writesDuringRebuild.add(() -> doPut(id, username));
+            }
+            doPut(id, username);
+        }
+    }
+
+    /**
+     * Removes a user from the index.
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            if (rebuilding) {
+                writesDuringRebuild.add(() -> doRemove(id));
+            }
+            doRemove(id);
+        }
+    }
+
+    private void doPut(Long id, String username) {
+        String normalized = normalize(username);
+        String previous = usernamesById.put(id, normalized);
+
+        if (previous == null) {
+            size.incrementAndGet();
+        } else if (previous.equals(normalized)) {
+            return;
+        } else {
+            forEachGram(previous, gram -> removeFromPosting(gram, id));
+        }
+
+        forEachGram(normalized, gram -> postings.computeIfAbsent(gram, _ -> new Posting()).add(id));
+    }
+
+    private void doRemove(Long id) {
+        String previous = usernamesById.remove(id);
+        if (previous != null) {
+            size.decrementAndGet();
+            forEachGram(previous, gram -> removeFromPosting(gram, id));
+        }
+    }
+
+    /**
+     * Number of indexed users.
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the ids of users whose username contains the filter, in id order.
+     *
+     * @param filter substring to search for (case-insensitive)
+     * @param offset number of matches to skip
+     * @param limit  maximum number of ids to return
+     */
+    public List<Long> search(String filter, int offset, int limit) {
+        return collect(filter, null, offset, limit);
+    }
+
+    /**
+     * Keyset variant of {@link #search(String, int, int)}: returns matches with an id greater than lastSeenId.
+     */
+    public List<Long> searchAfter(String filter, Long lastSeenId, int limit) {
+        return collect(filter, lastSeenId, 0, limit);
+    }
+
+    /**
+     * Exact number of users whose username contains the filter.
+     */
+    public long count(String filter) {
+        String needle = normalize(filter);
+        if (needle.isEmpty()) {
+            return size();
+        }
+
+        return candidates(needle, null).filter(id -> matches(id, needle)).count();
+    }
+
+    private List<Long> collect(String filter, Long lastSeenId, int offset, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        String needle = normalize(filter);
+        return candidates(needle, lastSeenId)
+                .filter(id -> matches(id, needle))
+                .skip(Math.max(0, offset))
+                .limit(limit)
+                .boxed()
+                .toList();
+    }
+
+    private LongStream candidates(String needle, Long lastSeenId) {
+        if (needle.length() < GRAM_LENGTH) {
+            var ids = lastSeenId != null
+                    ? usernamesById.tailMap(lastSeenId, false).navigableKeySet()
+                    : usernamesById.navigableKeySet();
+            return ids.stream().mapToLong(Long::longValue);
+        }
+
+        Posting.Ids smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            Posting posting = postings.get(needle.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return LongStream.empty();
+            }
+            Posting.Ids ids = posting.ids;
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return smallest.streamAfter(lastSeenId);
+    }
+
+    private boolean matches(long id, String needle) {
+        String username = usernamesById.get(id);
+        return username != null && username.contains(needle);
+    }
+
+    private void removeFromPosting(String gram, Long id) {
+        // Empty postings are kept: dropping them could race with a concurrent add of the same trigram
+        Posting posting = postings.get(gram);
+        if (posting != null) {
+            posting.remove(id);
+        }
+    }
+
+    private static void forEachGram(String value, Consumer<String> action) {
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            action.accept(value.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Sorted ids of one trigram, written under the index write lock and read without locking.
+     * <p>
+     * Readers see an immutable (array, size) pair. Appending a larger id (the common case: new users)
+     * writes past every published size and publishes a new pair, so it shares the array; anything else
+     * copies the array.
+     */
+    private static final class Posting {
+
+        record Ids(long[] values, int size) {
+
+            LongStream streamAfter(Long lastSeenId) {
+                int from = 0;
+                if (lastSeenId != null) {
+                    int index = Arrays.binarySearch(values, 0, size, lastSeenId);
+                    from = index >= 0 ? index + 1 : -index - 1;
+                }
+                return Arrays.stream(values, from, size);
+            }
+        }
+
+        private volatile Ids ids = new Ids(new long[4], 0);
+
+        void add(long id) {
+            Ids current = ids;
+            long[] values = current.values();
+            int size = current.size();
+
+            if (size == 0 || values[size - 1] < id) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size + (size >> 1) + 1);
+                }
+                values[size] = id;
+                ids = new Ids(values, size + 1);
+                return;
+            }
+
+            int index = Arrays.binarySearch(values, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            long[] copy = new long[Math.max(values.length, size + 1)];
+            System.arraycopy(values, 0, copy, 0, insertAt);
+            copy[insertAt] = id;
+            System.arraycopy(values, insertAt, copy, insertAt + 1, size - insertAt);
+            ids = new Ids(copy, size + 1);
+        }
+
+        void remove(long id) {
+            Ids current = ids;
+            long[] values = current.values();
+            int size = current.size();
+
+            int index = Arrays.binarySearch(values, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            long[] copy = new long[size - 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            System.arraycopy(values, index + 1, copy, index, size - index - 1);
+            ids = new Ids(copy, size - 1);
+        }
+    }
+}
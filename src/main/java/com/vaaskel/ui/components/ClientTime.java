@@ -0,0 +1,57 @@
+package com.vaaskel.ui.components;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.dependency.JsModule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Server-side counterpart of the {@code <vaaskel-time>} web component, which formats a timestamp in the
+ * browser's locale. Views that use the client-side renderers of
+ * {@link com.vaaskel.ui.util.DateTimeRenderers} declare {@code @Uses(ClientTime.class)} so the
+ * component is part of the frontend bundle.
+ */
+@Tag("vaaskel-time")
+@JsModule("./components/vaaskel-time.ts")
+public class ClientTime extends Component {
+
+    public enum Mode {
+        DATETIME, DATE, TIME, RELATIVE;
+
+        public String attributeValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public ClientTime() {
+        setMode(Mode.DATETIME);
+    }
+
+    public ClientTime(LocalDateTime value, Mode mode) {
+        setValue(value);
+        setMode(mode);
+    }
+
+    public void setValue(LocalDateTime value) {
+        Long seconds = toEpochSeconds(value);
+        if (seconds != null) {
+            getElement().setProperty("value", seconds);
+        } else {
+            getElement().removeProperty("value");
+        }
+    }
+
+    public void setMode(Mode mode) {
+        getElement().setAttribute("mode", mode.attributeValue());
+    }
+
+    /**
+     * Converts a server-local timestamp (as stored by the entities) to epoch seconds, or null.
+     */
+    public static Long toEpochSeconds(LocalDateTime value) {
+        return value != null ? value.atZone(ZoneId.systemDefault()).toEpochSecond() : null;
+    }
+}
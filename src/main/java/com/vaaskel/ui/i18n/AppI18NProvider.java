@@ -1,13 +1,28 @@
 package com.vaaskel.ui.i18n;
 
 import com.vaadin.flow.i18n.I18NProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Serves translations from a {@link MessageCatalog} loaded once at startup.
+ * <p>
+ * Lookups without parameters return the stored string and do not allocate; missing keys
+ * return a cached {@code !key!} marker. With {@code vaaskel.i18n.reload-interval} set (dev profile),
+ * the bundles are re-read at most once per interval so edited messages show up without a restart.
+ */
 @Component
 public class AppI18NProvider implements I18NProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppI18NProvider.class);
+
     public static final String BUNDLE_PREFIX = "i18n/messages";
 
     private final List<Locale> locales = List.of(
@@ -15,6 +30,18 @@ public class AppI18NProvider implements I18NProvider {
             Locale.GERMAN
     );
 
+    private final Map<String, String> missingMarkers = new ConcurrentHashMap<>();
+    private final long reloadIntervalNanos;
+    private final AtomicLong nextReload;
+
+    private volatile MessageCatalog catalog;
+
+    public AppI18NProvider(@Value("${vaaskel.i18n.reload-interval:0s}") Duration reloadInterval) {
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+        this.nextReload = new AtomicLong(System.nanoTime() + reloadIntervalNanos);
+        this.catalog = loadCatalog();
+    }
+
     @Override
     public List<Locale> getProvidedLocales() {
         return locales;
@@ -22,15 +49,35 @@ public class AppI18NProvider implements I18NProvider {
 
     @Override
     public String getTranslation(String key, Locale locale, Object... params) {
-        try {
-            ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_PREFIX, locale);
-            String value = bundle.getString(key);
-            if (params != null && params.length > 0) {
-                return String.format(value, params);
+        if (reloadIntervalNanos > 0) {
+            reloadIfDue();
+        }
+
+        MessageTemplate message = catalog.messages(locale).get(key);
+        if (message == null) {
+            return missingMarkers.computeIfAbsent(key, k -> "!" + k + "!");
+        }
+        if (params != null && params.length > 0) {
+            return message.format(locale != null ? locale : Locale.ROOT, params);
+        }
+        return message.text();
+    }
+
+    private void reloadIfDue() {
+        long now = System.nanoTime();
+        long due = nextReload.get();
+
+        if (now - due >= 0 && nextReload.compareAndSet(due, now + reloadIntervalNanos)) {
+            try {
+                ResourceBundle.clearCache(getClass().getClassLoader());
+                catalog = loadCatalog();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Reloading message bundles failed, keeping previous catalog", e);
             }
-            return value;
-        } catch (MissingResourceException e) {
-            return "!" + key + "!";
         }
     }
+
+    private MessageCatalog loadCatalog() {
+        return MessageCatalog.load(BUNDLE_PREFIX, locales, getClass().getClassLoader());
+    }
 }
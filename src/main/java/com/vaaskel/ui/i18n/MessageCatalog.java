@@ -0,0 +1,74 @@
+package com.vaaskel.ui.i18n;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable snapshot of all message bundles, flattened per locale.
+ * <p>
+ * Each provided locale gets one map that already contains the inherited keys of its parent bundles
+ * (e.g. {@code messages_de} on top of {@code messages}), so a lookup is a single hash map access.
+ * Other locales are mapped once to the closest loaded one (language, then the base bundle).
+ */
+final class MessageCatalog {
+
+    private final Map<Locale, Map<String, MessageTemplate>> messagesByLocale;
+    private final Map<String, MessageTemplate> defaultMessages;
+    private final Map<Locale, Map<String, MessageTemplate>> resolved = new ConcurrentHashMap<>();
+    private final Function<Locale, Map<String, MessageTemplate>> resolver = this::resolve;
+
+    private MessageCatalog(Map<Locale, Map<String, MessageTemplate>> messagesByLocale,
+            Map<String, MessageTemplate> defaultMessages) {
+        this.messagesByLocale = messagesByLocale;
+        this.defaultMessages = defaultMessages;
+    }
+
+    static MessageCatalog load(String baseName, List<Locale> locales, ClassLoader classLoader) {
+        // Without fallback to the JVM default locale, a missing messages_de resolves to the base bundle
+        ResourceBundle.Control control = ResourceBundle.Control.getNoFallbackControl(
+                ResourceBundle.Control.FORMAT_PROPERTIES);
+
+        Map<Locale, Map<String, MessageTemplate>> messagesByLocale = new HashMap<>();
+        for (Locale locale : locales) {
+            messagesByLocale.put(locale, flatten(ResourceBundle.getBundle(baseName, locale, classLoader, control)));
+        }
+
+        Map<String, MessageTemplate> defaults = flatten(
+                ResourceBundle.getBundle(baseName, Locale.ROOT, classLoader, control));
+
+        return new MessageCatalog(Map.copyOf(messagesByLocale), defaults);
+    }
+
+    /**
+     * Messages for the locale, including inherited ones.
+     */
+    Map<String, MessageTemplate> messages(Locale locale) {
+        if (locale == null) {
+            return defaultMessages;
+        }
+
+        Map<String, MessageTemplate> messages = resolved.get(locale);
+        return messages != null ? messages : resolved.computeIfAbsent(locale, resolver);
+    }
+
+    private Map<String, MessageTemplate> resolve(Locale locale) {
+        Map<String, MessageTemplate> messages = messagesByLocale.get(locale);
+        if (messages == null) {
+            messages = messagesByLocale.get(Locale.of(locale.getLanguage()));
+        }
+        return messages != null ? messages : defaultMessages;
+    }
+
+    private static Map<String, MessageTemplate> flatten(ResourceBundle bundle) {
+        Map<String, MessageTemplate> messages = new HashMap<>();
+        for (String key : bundle.keySet()) {
+            messages.put(key, MessageTemplate.parse(bundle.getString(key)));
+        }
+        return Map.copyOf(messages);
+    }
+}
@@ -0,0 +1,106 @@
+package com.vaaskel.ui.i18n;
+
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A message pattern parsed once when the catalog is loaded.
+ * <p>
+ * Patterns that only use {@code %s}, {@code %1$s}, {@code %%} and {@code %n} are split into literal
+ * segments and argument positions and formatted with a plain {@link StringBuilder}. Anything else
+ * (widths, numeric conversions, ...) is passed to {@link String#format(Locale, String, Object...)}.
+ */
+final class MessageTemplate {
+
+    private final String pattern;
+    private final String[] literals;
+    private final int[] argumentIndexes;
+
+    private MessageTemplate(String pattern, String[] literals, int[] argumentIndexes) {
+        this.pattern = pattern;
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+    }
+
+    static MessageTemplate parse(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int nextImplicit = 0;
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i + 1 >= pattern.length()) {
+                return complex(pattern);
+            }
+
+            char next = pattern.charAt(++i);
+            if (next == '%') {
+                literal.append('%');
+            } else if (next == 'n') {
+                literal.append(System.lineSeparator());
+            } else if (next == 's') {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                indexes.add(nextImplicit++);
+            } else if (Character.isDigit(next)) {
+                int end = i;
+                while (end < pattern.length() && Character.isDigit(pattern.charAt(end))) {
+                    end++;
+                }
+                if (end + 1 >= pattern.length() || pattern.charAt(end) != '$' || pattern.charAt(end + 1) != 's') {
+                    return complex(pattern);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                indexes.add(Integer.parseInt(pattern, i, end, 10) - 1);
+                i = end + 1;
+            } else {
+                return complex(pattern);
+            }
+        }
+        literals.add(literal.toString());
+
+        return new MessageTemplate(pattern, literals.toArray(String[]::new),
+                indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static MessageTemplate complex(String pattern) {
+        return new MessageTemplate(pattern, null, null);
+    }
+
+    /**
+     * The raw pattern, used when a message is looked up without parameters.
+     */
+    String text() {
+        return pattern;
+    }
+
+    String format(Locale locale, Object... params) {
+        if (literals == null || !canFormatDirectly(params)) {
+            return String.format(locale, pattern, params);
+        }
+
+        StringBuilder out = new StringBuilder(pattern.length() + 16 * argumentIndexes.length);
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            out.append(literals[i]).append(params[argumentIndexes[i]]);
+        }
+        return out.append(literals[argumentIndexes.length]).toString();
+    }
+
+    private boolean canFormatDirectly(Object[] params) {
+        for (int index : argumentIndexes) {
+            // Out of range is left to String.format, which reports it like before
+            if (index < 0 || index >= params.length || params[index] instanceof Formattable) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,193 @@
+package com.vaaskel.ui.monitoring;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import org.springframework.aop.SpringProxy;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Actuator endpoint {@code /actuator/vaadinsessions}: serialized size and component count of every
+ * open Vaadin session and its UIs, to track the memory held per concurrent (admin) user.
+ * <p>
+ * Views and layouts reference Spring singletons (services, {@code AuthenticatedUser}, ...), which are
+ * shared by all sessions and mostly not serializable. They are written as a one-byte stub, as is any
+ * other non-serializable object (counted in {@code stubbedObjects}, the size is then a lower bound),
+ * so a session is only reported as unmeasured (-1) if serialization fails for another reason.
+ * <p>
+ * Each session is serialized under its lock when the endpoint is read, so this is meant for
+ * occasional diagnostics, not for scraping.
+ */
+@org.springframework.stereotype.Component
+@Endpoint(id = "vaadinsessions")
+public class VaadinSessionMemoryEndpoint implements VaadinServiceInitListener {
+
+    private final Set<VaadinSession> sessions = ConcurrentHashMap.newKeySet();
+    private final ConfigurableListableBeanFactory beanFactory;
+
+    public VaadinSessionMemoryEndpoint(ConfigurableListableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionInitListener(e -> sessions.add(e.getSession()));
+        event.getSource().addSessionDestroyListener(e -> sessions.remove(e.getSession()));
+    }
+
+    @ReadOperation
+    public SessionMemoryReport report() {
+        Set<Object> beans = singletons();
+
+        List<SessionMemory> report = new ArrayList<>();
+        for (VaadinSession session : sessions) {
+            session.lock();
+            try {
+                report.add(measure(session, beans));
+            } finally {
+                session.unlock();
+            }
+        }
+        report.sort(Comparator.comparingLong(SessionMemory::serializedBytes).reversed());
+
+        long total = report.stream().mapToLong(s -> Math.max(s.serializedBytes(), 0)).sum();
+        int unmeasured = (int) report.stream().filter(s -> s.serializedBytes() < 0).count();
+        return new SessionMemoryReport(report.size(), unmeasured, total, report);
+    }
+
+    /**
+     * Serialized size of an object graph with Spring beans and non-serializable objects stubbed.
+     */
+    Measurement serializedSize(Object object) {
+        return serializedSize(object, singletons());
+    }
+
+    private Set<Object> singletons() {
+        Set<Object> beans = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String name : beanFactory.getSingletonNames()) {
+            Object bean = beanFactory.getSingleton(name);
+            if (bean != null) {
+                beans.add(bean);
+            }
+        }
+        return beans;
+    }
+
+    private static SessionMemory measure(VaadinSession session, Set<Object> beans) {
+        List<UiMemory> uis = session.getUIs().stream()
+                .map(ui -> {
+                    Measurement size = serializedSize(ui, beans);
+                    return new UiMemory(ui.getUIId(), currentRoute(ui), countComponents(ui), size.bytes(),
+                            size.stubbedObjects());
+                })
+                .toList();
+
+        Measurement size = serializedSize(session, beans);
+        return new SessionMemory(Instant.ofEpochMilli(session.getLastRequestTimestamp()),
+                uis.stream().mapToInt(UiMemory::components).sum(), size.bytes(), size.stubbedObjects(), uis);
+    }
+
+    private static String currentRoute(UI ui) {
+        return ui.getInternals().getActiveViewLocation().getPath();
+    }
+
+    private static int countComponents(Component component) {
+        return 1 + component.getChildren().mapToInt(VaadinSessionMemoryEndpoint::countComponents).sum();
+    }
+
+    /**
+     * @return serialized size in bytes, -1 if serialization failed anyway
+     */
+    private static Measurement serializedSize(Object object, Set<Object> beans) {
+        CountingOutputStream counter = new CountingOutputStream();
+        try (StubbingOutputStream out = new StubbingOutputStream(counter, beans)) {
+            out.writeObject(object);
+            out.flush();
+            return new Measurement(counter.count, out.stubbed);
+        } catch (IOException | RuntimeException ex) {
+            return new Measurement(-1, 0);
+        }
+    }
+
+    /**
+     * Replaces shared Spring beans and non-serializable objects by a stub.
+     */
+    private static final class StubbingOutputStream extends ObjectOutputStream {
+        private final Set<Object> beans;
+        private int stubbed;
+
+        StubbingOutputStream(OutputStream out, Set<Object> beans) throws IOException {
+            super(out);
+            this.beans = beans;
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if (beans.contains(obj) || obj instanceof SpringProxy) {
+                return Stub.SPRING_BEAN;
+            }
+            if (!(obj instanceof Serializable)) {
+                stubbed++;
+                return Stub.NOT_SERIALIZABLE;
+            }
+            return obj;
+        }
+    }
+
+    private enum Stub {
+        SPRING_BEAN, NOT_SERIALIZABLE
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    record Measurement(long bytes, int stubbedObjects) {
+    }
+
+    /**
+     * @param unmeasuredSessions sessions that could not be serialized, not included in the total
+     */
+    public record SessionMemoryReport(int sessions, int unmeasuredSessions, long totalSerializedBytes,
+            List<SessionMemory> details) {
+    }
+
+    /**
+     * @param serializedBytes size of the whole session (UIs included), -1 if it could not be serialized
+     * @param stubbedObjects  non-serializable objects (other than Spring beans) left out of the size
+     */
+    public record SessionMemory(Instant lastRequest, int components, long serializedBytes, int stubbedObjects,
+            List<UiMemory> uis) {
+    }
+
+    public record UiMemory(int uiId, String route, int components, long serializedBytes, int stubbedObjects) {
+    }
+}
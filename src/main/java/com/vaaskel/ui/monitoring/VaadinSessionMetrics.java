@@ -0,0 +1,48 @@
+package com.vaaskel.ui.monitoring;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Number of active Vaadin sessions and attached UIs, as {@code vaadin.sessions.active} and
+ * {@code vaadin.uis.active}.
+ */
+@Component
+public class VaadinSessionMetrics implements VaadinServiceInitListener, MeterBinder {
+
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger uis = new AtomicInteger();
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        VaadinService service = event.getSource();
+
+        service.addSessionInitListener(_ -> sessions.incrementAndGet());
+        service.addSessionDestroyListener(_ -> sessions.decrementAndGet());
+
+        service.addUIInitListener(uiEvent -> {
+            UI ui = uiEvent.getUI();
+            uis.incrementAndGet();
+            ui.addDetachListener(_ -> uis.decrementAndGet());
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("vaadin.sessions.active", sessions, AtomicInteger::get)
+                .description("Open Vaadin sessions")
+                .register(registry);
+
+        Gauge.builder("vaadin.uis.active", uis, AtomicInteger::get)
+                .description("Attached Vaadin UIs (browser tabs)")
+                .register(registry);
+    }
+}
@@ -0,0 +1,9 @@
+package com.vaaskel.ui.navigation;
+
+/**
+ * One side navigation entry with its title already translated.
+ *
+ * @param icon icon URL of the {@code @Menu} annotation, or null
+ */
+public record NavigationItem(String path, String title, String icon) {
+}
@@ -0,0 +1,143 @@
+package com.vaaskel.ui.navigation;
+
+import com.vaadin.flow.i18n.I18NProvider;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.RouteData;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.auth.AccessAnnotationChecker;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Side navigation computed once per distinct role set instead of per UI: the {@code @Menu} routes
+ * are scanned when the Vaadin service starts (and again when routes change), filtered with the
+ * access annotations for every combination of {@link UserRoleType}, sorted, and their titles
+ * translated for every provided locale. With {@code vaaskel.i18n.reload-interval} set (dev profile)
+ * titles are translated on every call instead, so reloaded messages show up in the menu as well.
+ */
+@Component
+public class NavigationMenu implements VaadinServiceInitListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NavigationMenu.class);
+
+    // Layouts using the menu require a logged-in user; only the roles differ
+    private static final Principal AUTHENTICATED = () -> "navigation";
+
+    private final AccessAnnotationChecker accessChecker;
+    private final I18NProvider i18nProvider;
+    private final boolean cacheTitles;
+
+    private volatile Map<Set<UserRoleType>, RoleMenu> menus = Map.of();
+
+    public NavigationMenu(AccessAnnotationChecker accessChecker, I18NProvider i18nProvider,
+            @Value("${vaaskel.i18n.reload-interval:0s}") Duration i18nReloadInterval) {
+        this.accessChecker = accessChecker;
+        this.i18nProvider = i18nProvider;
+        this.cacheTitles = !i18nReloadInterval.isPositive();
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        var registry = event.getSource().getRouter().getRegistry();
+        rebuild(registry.getRegisteredRoutes());
+        registry.addRoutesChangeListener(_ -> rebuild(registry.getRegisteredRoutes()));
+    }
+
+    /**
+     * Entries visible to a user with the given roles, in menu order.
+     */
+    public List<NavigationItem> items(Set<UserRoleType> roles, Locale locale) {
+        RoleMenu menu = menus.get(roles); // set equality, any Set implementation matches
+        return menu != null ? menu.items(locale) : List.of();
+    }
+
+    void rebuild(List<RouteData> routes) {
+        List<MenuRoute> menuRoutes = routes.stream()
+                .filter(route -> route.getNavigationTarget().isAnnotationPresent(Menu.class))
+                .filter(route -> !route.getTemplate().contains(":")) // needs parameters, cannot be linked
+                .map(MenuRoute::of)
+                .sorted(Comparator.comparingDouble(MenuRoute::order).thenComparing(MenuRoute::path))
+                .toList();
+
+        Map<Set<UserRoleType>, RoleMenu> byRoles = new HashMap<>();
+        for (EnumSet<UserRoleType> roles : allRoleSets()) {
+            List<MenuRoute> visible = menuRoutes.stream()
+                    .filter(route -> accessChecker.hasAccess(route.target(), AUTHENTICATED,
+                            role -> roles.stream().anyMatch(r -> r.name().equals(role))))
+                    .toList();
+            byRoles.put(roles, new RoleMenu(visible));
+        }
+        // Translate up front, so the first UI per locale does not pay for it
+        if (cacheTitles) {
+            byRoles.values().forEach(menu -> i18nProvider.getProvidedLocales().forEach(menu::items));
+        }
+        menus = Map.copyOf(byRoles);
+
+        LOGGER.debug("Navigation menu built from {} routes for {} role sets", menuRoutes.size(), byRoles.size());
+    }
+
+    private static List<EnumSet<UserRoleType>> allRoleSets() {
+        UserRoleType[] types = UserRoleType.values();
+        List<EnumSet<UserRoleType>> sets = new ArrayList<>(1 << types.length);
+        for (int mask = 0; mask < 1 << types.length; mask++) {
+            EnumSet<UserRoleType> set = EnumSet.noneOf(UserRoleType.class);
+            for (int i = 0; i < types.length; i++) {
+                if ((mask & 1 << i) != 0) {
+                    set.add(types[i]);
+                }
+            }
+            sets.add(set);
+        }
+        return sets;
+    }
+
+    private String translate(String keyOrTitle, Locale locale) {
+        String translated = i18nProvider.getTranslation(keyOrTitle, locale);
+        // The provider returns "!key!" for missing keys; titles may be plain text then
+        return ("!" + keyOrTitle + "!").equals(translated) ? keyOrTitle : translated;
+    }
+
+    private record MenuRoute(Class<?> target, String path, String titleKey, String icon, double order) {
+
+        static MenuRoute of(RouteData route) {
+            Class<?> target = route.getNavigationTarget();
+            Menu menu = target.getAnnotation(Menu.class);
+            PageTitle pageTitle = target.getAnnotation(PageTitle.class);
+
+            String title = !menu.title().isEmpty() ? menu.title()
+                    : pageTitle != null ? pageTitle.value() : target.getSimpleName();
+            String icon = menu.icon().isEmpty() ? null : menu.icon();
+
+            return new MenuRoute(target, route.getTemplate(), title, icon, menu.order());
+        }
+    }
+
+    private final class RoleMenu {
+        private final List<MenuRoute> routes;
+        private final Map<Locale, List<NavigationItem>> itemsByLocale = new ConcurrentHashMap<>();
+
+        RoleMenu(List<MenuRoute> routes) {
+            this.routes = routes;
+        }
+
+        List<NavigationItem> items(Locale locale) {
+            return cacheTitles ? itemsByLocale.computeIfAbsent(locale, this::translated) : translated(locale);
+        }
+
+        private List<NavigationItem> translated(Locale locale) {
+            return routes.stream()
+                    .map(route -> new NavigationItem(route.path(), translate(route.titleKey(), locale), route.icon()))
+                    .toList();
+        }
+    }
+}
@@ -3,11 +3,40 @@ package com.vaaskel.ui.theme;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.theme.lumo.Lumo;
 import com.vaaskel.domain.settings.ThemePreference;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 
 public final class ThemeApplier {
 
+    /**
+     * Follows the OS color scheme (fallback dark) and keeps following it when it changes.
+     */
+    private static final String SYSTEM_THEME_SCRIPT = """
+            (function(){
+              const root = document.documentElement;
+              const mq = window.matchMedia ? window.matchMedia('(prefers-color-scheme: dark)') : null;
+
+              const apply = () => {
+                if (!mq) { root.setAttribute('theme','dark'); return; } // fallback
+                if (mq.matches) root.setAttribute('theme','dark');
+                else root.setAttribute('theme','light');
+              };
+
+              apply();
+
+              if (!window.__vaaskelThemeListenerInstalled && mq) {
+                window.__vaaskelThemeListenerInstalled = true;
+                mq.addEventListener('change', apply);
+              }
+            })();
+            """;
+
     private ThemeApplier() {}
 
+    /**
+     * Switches the theme of a running UI (e.g. after the user changed the preference).
+     */
     public static void apply(UI ui, ThemePreference pref) {
         if (pref == null) {
             pref = ThemePreference.SYSTEM;
@@ -24,6 +53,39 @@ public final class ThemeApplier {
         }
     }
 
+    /**
+     * Mirrors the preference on the server side of a new UI only. The document itself was already themed
+     * by {@link #applyToBootstrapPage(Document, ThemePreference)}, so no JavaScript is sent.
+     */
+    public static void applyInitial(UI ui, ThemePreference pref) {
+        ui.getElement().removeAttribute("theme");
+
+        switch (pref != null ? pref : ThemePreference.SYSTEM) {
+            case DARK -> ui.getElement().setAttribute("theme", Lumo.DARK);
+            case LIGHT -> ui.getElement().setAttribute("theme", Lumo.LIGHT);
+            case SYSTEM -> {
+                // resolved in the browser by the bootstrap script
+            }
+        }
+    }
+
+    /**
+     * Writes the preference into the bootstrap HTML, so the first paint already uses the right theme.
+     */
+    public static void applyToBootstrapPage(Document document, ThemePreference pref) {
+        Element html = document.selectFirst("html");
+        if (html == null) {
+            return;
+        }
+
+        switch (pref != null ? pref : ThemePreference.SYSTEM) {
+            case DARK -> html.attr("theme", Lumo.DARK);
+            case LIGHT -> html.attr("theme", Lumo.LIGHT);
+            case SYSTEM -> document.head().appendElement("script").appendChild(
+                    new DataNode(SYSTEM_THEME_SCRIPT));
+        }
+    }
+
     private static void setDark(UI ui) {
         ui.getElement().setAttribute("theme", Lumo.DARK);
         ui.getPage().executeJs("document.documentElement.setAttribute('theme','dark');");
@@ -37,24 +99,6 @@ public final class ThemeApplier {
     }
 
     private static void applySystem(UI ui) {
-        ui.getPage().executeJs("""
-            (function(){
-              const root = document.documentElement;
-              const mq = window.matchMedia ? window.matchMedia('(prefers-color-scheme: dark)') : null;
-
-              const apply = () => {
-                if (!mq) { root.setAttribute('theme','dark'); return; } // fallback
-                if (mq.matches) root.setAttribute('theme','dark');
-                else root.setAttribute('theme','light');
-              };
-
-              apply();
-
-              if (!window.__vaaskelThemeListenerInstalled && mq) {
-                window.__vaaskelThemeListenerInstalled = true;
-                mq.addEventListener('change', apply);
-              }
-            })();
-        """);
+        ui.getPage().executeJs(SYSTEM_THEME_SCRIPT);
     }
 }
@@ -0,0 +1,64 @@
+package com.vaaskel.ui.theme;
+
+import com.vaaskel.domain.settings.ThemePreference;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import jakarta.servlet.http.Cookie;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Cookie remembering the theme preference of the browser, so pages can be themed
+ * in the bootstrap HTML before anybody is authenticated (e.g. the login page).
+ * <p>
+ * The value is the plain {@link ThemePreference} name; it only picks the browser's own theme,
+ * so there is nothing to protect. Unknown values are ignored (the system theme is used).
+ */
+@Component
+public class ThemeCookie {
+
+    static final String NAME = "vaaskel-theme";
+
+    private static final int MAX_AGE_SECONDS = 60 * 60 * 24 * 365;
+
+    public Optional<ThemePreference> read(VaadinRequest request) {
+        Cookie[] cookies = request != null ? request.getCookies() : null;
+        if (cookies == null) {
+            return Optional.empty();
+        }
+
+        return Arrays.stream(cookies)
+                .filter(c -> NAME.equals(c.getName()))
+                .findFirst()
+                .flatMap(c -> parse(c.getValue()));
+    }
+
+    public void write(VaadinRequest request, VaadinResponse response, ThemePreference pref) {
+        if (response == null || pref == null) {
+            return;
+        }
+
+        Cookie cookie = new Cookie(NAME, pref.name());
+        String contextPath = request != null ? request.getContextPath() : "";
+        cookie.setPath(contextPath == null || contextPath.isEmpty() ? "/" : contextPath);
+        cookie.setMaxAge(MAX_AGE_SECONDS);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request != null && request.isSecure());
+        cookie.setAttribute("SameSite", "Lax");
+        response.addCookie(cookie);
+    }
+
+    private static Optional<ThemePreference> parse(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(ThemePreference.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
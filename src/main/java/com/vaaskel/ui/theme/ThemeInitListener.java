@@ -3,32 +3,50 @@ package com.vaaskel.ui.theme;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.server.ServiceInitEvent;
 import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.communication.IndexHtmlResponse;
 import com.vaaskel.domain.settings.ThemePreference;
 import com.vaaskel.security.AuthenticatedUser;
-import com.vaaskel.service.settings.UserSettingsService;
+import com.vaaskel.security.AuthenticatedUserSnapshot;
 import org.springframework.stereotype.Component;
 
+/**
+ * Themes new pages without database access or extra JavaScript round trips:
+ * the preference is written into the bootstrap HTML (from the session snapshot of the user,
+ * or the theme cookie for anonymous pages) and new UIs only mirror it server side.
+ */
 @Component
 public class ThemeInitListener implements VaadinServiceInitListener {
 
     private final AuthenticatedUser authenticatedUser;
-    private final UserSettingsService userSettingsService;
+    private final ThemeCookie themeCookie;
 
-    public ThemeInitListener(AuthenticatedUser authenticatedUser, UserSettingsService userSettingsService) {
+    public ThemeInitListener(AuthenticatedUser authenticatedUser, ThemeCookie themeCookie) {
         this.authenticatedUser = authenticatedUser;
-        this.userSettingsService = userSettingsService;
+        this.themeCookie = themeCookie;
     }
 
     @Override
     public void serviceInit(ServiceInitEvent event) {
+        event.addIndexHtmlRequestListener(this::themeBootstrapPage);
+
         event.getSource().addUIInitListener(uiEvent -> {
             UI ui = uiEvent.getUI();
 
-            ThemePreference pref = authenticatedUser.get()
-                    .map(user -> userSettingsService.getOrCreate(user).getThemePreference())
+            // Served from the session snapshot, no settings row is read or created here
+            ThemePreference pref = authenticatedUser.getSnapshot()
+                    .map(AuthenticatedUserSnapshot::themePreference)
                     .orElse(ThemePreference.SYSTEM);
 
-            ThemeApplier.apply(ui, pref);
+            ThemeApplier.applyInitial(ui, pref);
         });
     }
-}
\ No newline at end of file
+
+    private void themeBootstrapPage(IndexHtmlResponse response) {
+        ThemePreference pref = authenticatedUser.getSnapshot()
+                .map(AuthenticatedUserSnapshot::themePreference)
+                .or(() -> themeCookie.read(response.getVaadinRequest()))
+                .orElse(ThemePreference.SYSTEM);
+
+        ThemeApplier.applyToBootstrapPage(response.getDocument(), pref);
+    }
+}
@@ -0,0 +1,132 @@
+package com.vaaskel.ui.util;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs service calls of views outside the Vaadin session lock and pushes the result back.
+ * <p>
+ * Loads run on a bounded pool ({@code vaaskel.ui.background.threads} threads, at most
+ * {@code vaaskel.ui.background.queue-capacity} waiting); the callbacks run inside {@link UI#access},
+ * so the lock is only held while components are updated. Requires server push. Loads are wrapped by the
+ * application's {@link TaskDecorator}, if there is one, so context of the calling request (e.g. the
+ * session used for read-your-writes routing) carries over to the loader thread.
+ * <p>
+ * Callers keep the returned {@link PendingLoad} and cancel it when a newer request supersedes it:
+ * a queued load is dropped, a running one finishes but its result is discarded.
+ */
+@Component
+public class BackgroundLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundLoader.class);
+
+    private final ThreadPoolExecutor executor;
+    private final TaskDecorator taskDecorator;
+
+    public BackgroundLoader(@Value("${vaaskel.ui.background.threads:8}") int threads,
+            @Value("${vaaskel.ui.background.queue-capacity:200}") int queueCapacity,
+            ObjectProvider<TaskDecorator> taskDecorator) {
+        this.taskDecorator = taskDecorator.getIfUnique(() -> task -> task);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ui-loader-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Loads a value in the background and hands it to the UI.
+     *
+     * @param ui        UI to update (must be attached)
+     * @param loader    service call, runs without the session lock
+     * @param onSuccess applies the result, runs with the session lock
+     * @param onFailure handles a failed or rejected load, runs with the session lock
+     * @return handle to cancel the load
+     */
+    public <T> PendingLoad load(UI ui, Supplier<T> loader, Consumer<T> onSuccess,
+            Consumer<RuntimeException> onFailure) {
+        PendingLoad pending = new PendingLoad();
+
+        try {
+            pending.future = executor.submit(taskDecorator.decorate(() -> {
+                if (pending.isCancelled()) {
+                    return;
+                }
+
+                T result = null;
+                RuntimeException failure = null;
+                try {
+                    result = loader.get();
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+
+                T loaded = result;
+                RuntimeException error = failure;
+                try {
+                    ui.access(() -> {
+                        if (pending.isCancelled()) {
+                            return;
+                        }
+                        if (error != null) {
+                            onFailure.accept(error);
+                        } else {
+                            onSuccess.accept(loaded);
+                        }
+                    });
+                } catch (UIDetachedException e) {
+                    LOGGER.debug("UI detached before background load completed");
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // Called from the UI thread, which already holds the session lock
+            onFailure.accept(e);
+        }
+        return pending;
+    }
+
+    /**
+     * Handle of a submitted load. Cancel and apply both run under the session lock,
+     * so a cancelled load never touches the UI.
+     */
+    public static final class PendingLoad {
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+
+        public void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
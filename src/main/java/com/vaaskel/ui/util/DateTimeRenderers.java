@@ -1,5 +1,7 @@
 package com.vaaskel.ui.util;
 
+import com.vaaskel.ui.components.ClientTime;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.data.renderer.LocalDateTimeRenderer;
 import com.vaadin.flow.data.renderer.Renderer;
 import com.vaadin.flow.function.ValueProvider;
@@ -49,4 +51,42 @@ public final class DateTimeRenderers {
                 pattern
         );
     }
+
+    /**
+     * Renders the value in the browser: only epoch seconds are sent per row and the
+     * {@code <vaaskel-time>} component formats them in the user's locale. The view must
+     * declare {@code @Uses(ClientTime.class)}.
+     *
+     * @param valueProvider extracts LocalDateTime from bean
+     * @param <T>           bean type
+     * @return Renderer that formats date and time on the client
+     */
+    public static <T> Renderer<T> clientDateTimeRenderer(
+            ValueProvider<T, LocalDateTime> valueProvider) {
+
+        return clientRenderer(valueProvider, ClientTime.Mode.DATETIME);
+    }
+
+    /**
+     * Client-side relative time ("5 minutes ago"), localized and kept current by the browser.
+     *
+     * @param valueProvider extracts LocalDateTime from bean
+     * @param <T>           bean type
+     * @return Renderer that formats relative times on the client
+     */
+    public static <T> Renderer<T> clientRelativeTimeRenderer(
+            ValueProvider<T, LocalDateTime> valueProvider) {
+
+        return clientRenderer(valueProvider, ClientTime.Mode.RELATIVE);
+    }
+
+    private static <T> Renderer<T> clientRenderer(
+            ValueProvider<T, LocalDateTime> valueProvider,
+            ClientTime.Mode mode) {
+
+        String template = "<vaaskel-time .value=${item.t} mode=\"" + mode.attributeValue() + "\"></vaaskel-time>";
+
+        return LitRenderer.<T>of(template)
+                .withProperty("t", item -> ClientTime.toEpochSeconds(valueProvider.apply(item)));
+    }
 }
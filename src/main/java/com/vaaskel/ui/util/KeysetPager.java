@@ -0,0 +1,87 @@
+package com.vaaskel.ui.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Translates the offset/limit queries of a lazy Vaadin data provider into keyset (seek) fetches.
+ * <p>
+ * Remembers the key of the last row of every fetch, so the next page can be loaded "after" that key
+ * instead of with an OFFSET scan. Offsets a little past a remembered row are served from that key and the
+ * few surplus rows are skipped. Jumps further away (e.g. dragging the scrollbar) fall back to an OFFSET
+ * query, so a jump never loads more than {@code limit} rows; sequential scrolling continues with keysets
+ * from there.
+ * <p>
+ * Instances are not thread-safe; keep one per data provider (i.e. per view) and {@link #reset()} it
+ * whenever the filter changes.
+ *
+ * @param <T> row type
+ * @param <K> key type (e.g. the id)
+ */
+public final class KeysetPager<T, K> {
+
+    private final Function<T, K> keyExtractor;
+    private final NavigableMap<Integer, K> keysByIndex = new TreeMap<>();
+
+    public KeysetPager(Function<T, K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Fetches the rows [offset, offset + limit).
+     *
+     * @param offset        zero-based offset of the first row
+     * @param limit         maximum number of rows to return
+     * @param fetchAfter    loads up to n rows following the given key (null = from the beginning)
+     * @param fetchAtOffset loads up to n rows starting at the given offset (used for jumps)
+     * @return the requested rows
+     */
+    public Stream<T> fetch(int offset, int limit, BiFunction<K, Integer, List<T>> fetchAfter,
+            BiFunction<Integer, Integer, List<T>> fetchAtOffset) {
+        if (limit <= 0) {
+            return Stream.empty();
+        }
+
+        int anchorIndex = -1;
+        K anchorKey = null;
+
+        if (offset > 0) {
+            Map.Entry<Integer, K> anchor = keysByIndex.floorEntry(offset - 1);
+            if (anchor != null) {
+                anchorIndex = anchor.getKey();
+                anchorKey = anchor.getValue();
+            }
+        }
+
+        int skip = offset - anchorIndex - 1;
+        if (skip > limit) {
+            // Too far from any known key: skipping would load and drop all rows in between
+            List<T> rows = fetchAtOffset.apply(offset, limit);
+            remember(offset - 1, rows);
+            return rows.stream();
+        }
+
+        List<T> rows = fetchAfter.apply(anchorKey, skip + limit);
+        remember(anchorIndex, rows);
+
+        return rows.stream().skip(skip);
+    }
+
+    /**
+     * Forgets all remembered keys. Must be called when the underlying result changes (e.g. new filter).
+     */
+    public void reset() {
+        keysByIndex.clear();
+    }
+
+    private void remember(int indexBeforeFirst, List<T> rows) {
+        if (!rows.isEmpty()) {
+            keysByIndex.put(indexBeforeFirst + rows.size(), keyExtractor.apply(rows.getLast()));
+        }
+    }
+}
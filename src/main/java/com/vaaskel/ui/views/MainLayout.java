@@ -14,34 +14,39 @@ import com.vaadin.flow.component.sidenav.SideNavItem;
 import com.vaadin.flow.router.AfterNavigationEvent;
 import com.vaadin.flow.router.AfterNavigationObserver;
 import com.vaadin.flow.router.Layout;
-import com.vaadin.flow.server.auth.AccessAnnotationChecker;
+import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.menu.MenuConfiguration;
-import com.vaadin.flow.server.menu.MenuEntry;
 import com.vaadin.flow.theme.lumo.LumoUtility;
-import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.domain.settings.ThemePreference;
 import com.vaaskel.security.AuthenticatedUser;
+import com.vaaskel.security.AuthenticatedUserSnapshot;
 import com.vaaskel.service.settings.UserSettingsService;
+import com.vaaskel.ui.navigation.NavigationMenu;
 import com.vaaskel.ui.theme.ThemeApplier;
+import com.vaaskel.ui.theme.ThemeCookie;
 import jakarta.annotation.security.PermitAll;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Layout
 @PermitAll
 public class MainLayout extends AppLayout implements AfterNavigationObserver {
     private final UserSettingsService userSettingsService;
+    private final ThemeCookie themeCookie;
 
     private H1 viewTitle;
 
     private final AuthenticatedUser authenticatedUser;
-    private final AccessAnnotationChecker accessChecker;
+    private final NavigationMenu navigationMenu;
 
     public MainLayout(UserSettingsService userSettingsService, AuthenticatedUser authenticatedUser,
-            AccessAnnotationChecker accessChecker) {
+            NavigationMenu navigationMenu, ThemeCookie themeCookie) {
         this.userSettingsService = userSettingsService;
+        this.themeCookie = themeCookie;
         this.authenticatedUser = authenticatedUser;
-        this.accessChecker = accessChecker;
+        this.navigationMenu = navigationMenu;
 
         setPrimarySection(Section.DRAWER);
         addDrawerContent();
@@ -71,12 +76,16 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
     private SideNav createNavigation() {
         SideNav nav = new SideNav();
 
-        List<MenuEntry> menuEntries = MenuConfiguration.getMenuEntries();
-        menuEntries.forEach(entry -> {
-            if (entry.icon() != null) {
-                nav.addItem(new SideNavItem(entry.title(), entry.path(), new SvgIcon(entry.icon())));
+        // Filtered, sorted and translated once per role set; only the components are created here
+        Set<UserRoleType> roles = authenticatedUser.getSnapshot()
+                .map(AuthenticatedUserSnapshot::roles)
+                .orElse(Set.of());
+
+        navigationMenu.items(roles, getLocale()).forEach(item -> {
+            if (item.icon() != null) {
+                nav.addItem(new SideNavItem(item.title(), item.path(), new SvgIcon(item.icon())));
             } else {
-                nav.addItem(new SideNavItem(entry.title(), entry.path()));
+                nav.addItem(new SideNavItem(item.title(), item.path()));
             }
         });
 
@@ -86,11 +95,11 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
     private Footer createFooter() {
         Footer layout = new Footer();
 
-        Optional<User> maybeUser = authenticatedUser.get();
+        Optional<AuthenticatedUserSnapshot> maybeUser = authenticatedUser.getSnapshot();
         if (maybeUser.isPresent()) {
-            User user = maybeUser.get();
+            AuthenticatedUserSnapshot user = maybeUser.get();
 
-            Avatar avatar = new Avatar(user.getUsername());
+            Avatar avatar = new Avatar(user.username());
             avatar.setThemeName("xsmall");
             avatar.getElement().setAttribute("tabindex", "-1");
 
@@ -99,7 +108,7 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
 
             MenuItem userName = userMenu.addItem("");
             Div div = new Div();
-            div.add(avatar, new Span(user.getUsername()), new Icon("lumo", "dropdown"));
+            div.add(avatar, new Span(user.username()), new Icon("lumo", "dropdown"));
             div.addClassNames(LumoUtility.Display.FLEX, LumoUtility.AlignItems.CENTER, LumoUtility.Gap.SMALL);
             userName.add(div);
 
@@ -107,11 +116,11 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
             MenuItem themeRoot = userName.getSubMenu().addItem(getTranslation("main.user.theme"));
 
             themeRoot.getSubMenu().addItem(getTranslation("main.user.theme.system"),
-                    e -> setTheme(user, com.vaaskel.domain.settings.ThemePreference.SYSTEM));
+                    e -> setTheme(user, ThemePreference.SYSTEM));
             themeRoot.getSubMenu().addItem(getTranslation("main.user.theme.light"),
-                    e -> setTheme(user, com.vaaskel.domain.settings.ThemePreference.LIGHT));
+                    e -> setTheme(user, ThemePreference.LIGHT));
             themeRoot.getSubMenu().addItem(getTranslation("main.user.theme.dark"),
-                    e -> setTheme(user, com.vaaskel.domain.settings.ThemePreference.DARK));
+                    e -> setTheme(user, ThemePreference.DARK));
 
             userName.getSubMenu().addComponent(new Hr());
             userName.getSubMenu().addItem(getTranslation("main.user.signout"), e -> authenticatedUser.logout());
@@ -126,8 +135,10 @@ public class MainLayout extends AppLayout implements AfterNavigationObserver {
         return layout;
     }
 
-    private void setTheme(User user, com.vaaskel.domain.settings.ThemePreference pref) {
-        userSettingsService.updateTheme(user, pref);
+    private void setTheme(AuthenticatedUserSnapshot user, ThemePreference pref) {
+        userSettingsService.updateTheme(user.id(), pref);
+        // Remember it in the browser as well, so anonymous pages (login) start with it
+        themeCookie.write(VaadinService.getCurrentRequest(), VaadinService.getCurrentResponse(), pref);
         getUI().ifPresent(ui -> ThemeApplier.apply(ui, pref));
     }
 
@@ -4,8 +4,12 @@ import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaaskel.api.user.UserDto;
 import com.vaaskel.domain.security.entity.UserRoleType;
 import com.vaaskel.service.user.UserService;
+import com.vaaskel.ui.util.BackgroundLoader;
+import com.vaaskel.ui.util.BackgroundLoader.PendingLoad;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.Composite;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.checkbox.CheckboxGroup;
 import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
@@ -14,6 +18,7 @@ import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
 import com.vaadin.flow.component.textfield.EmailField;
@@ -33,6 +38,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Route("admin/users/:userId")
 @PageTitle("User edit")
@@ -43,10 +49,14 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
     private static final String PARAM_USER_ID = "userId";
 
     private final UserService userService;
+    private final BackgroundLoader backgroundLoader;
     private final Binder<UserDto> binder = new Binder<>(UserDto.class);
 
     private UserDto currentUser;
     private boolean createMode;
+    private PendingLoad userLoad;
+
+    private final ProgressBar loadingIndicator = new ProgressBar();
 
     private final Button saveButton = new Button();
     private final Button cancelButton = new Button();
@@ -58,10 +68,12 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
     private final Tab rolesTab = new Tab();
     private final Tab securityTab = new Tab();
 
+    // Only the first page is built up front; the others on first selection (see updateVisiblePage)
     private final UserAccountTab accountPage = new UserAccountTab();
-    private final UserRolesTab rolesPage = new UserRolesTab();
-    private final UserSecurityTab securityPage = new UserSecurityTab();
+    private UserRolesTab rolesPage;
+    private UserSecurityTab securityPage;
 
+    private final Map<Tab, Supplier<Component>> pageFactories = new LinkedHashMap<>();
     private final Map<Tab, Component> tabToPage = new LinkedHashMap<>();
 
     private final TextField infoId = new TextField();
@@ -69,8 +81,9 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
     private final TextField infoCreatedAt = new TextField();
     private final TextField infoChangedAt = new TextField();
 
-    public UserEditView(UserService userService) {
+    public UserEditView(UserService userService, BackgroundLoader backgroundLoader) {
         this.userService = userService;
+        this.backgroundLoader = backgroundLoader;
 
         setSizeFull();
         setPadding(true);
@@ -81,19 +94,25 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
 
         getUI().ifPresent(ui -> ui.getPage().setTitle(getTranslation("view.userEdit.title")));
 
-        securityPage.setResetPasswordHandler(this::resetPasswordForCurrentUser);
-
         accountPage.bind(binder);
-        rolesPage.bind(binder);
 
         HorizontalLayout headerBar = buildHeaderBar();
         Component infoBar = buildInfoBar();
         VerticalLayout contentLayout = buildContentLayout();
 
-        add(headerBar, infoBar, contentLayout);
+        loadingIndicator.setIndeterminate(true);
+        loadingIndicator.setVisible(false);
+
+        add(headerBar, loadingIndicator, infoBar, contentLayout);
         setFlexGrow(1, contentLayout);
     }
 
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        cancelUserLoad();
+        super.onDetach(detachEvent);
+    }
+
     @Override
     public void beforeEnter(BeforeEnterEvent event) {
         String rawId = event.getRouteParameters().get(PARAM_USER_ID).orElse("new");
@@ -103,7 +122,7 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
         } else {
             try {
                 Long id = Long.valueOf(rawId);
-                enterEditMode(id, event);
+                enterEditMode(id);
             } catch (NumberFormatException ex) {
                 Notification.show(getTranslation("view.userEdit.notification.invalidId"), 5000,
                         Notification.Position.MIDDLE);
@@ -129,9 +148,9 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
 
         tabs.add(accountTab, rolesTab, securityTab);
 
-        tabToPage.put(accountTab, accountPage);
-        tabToPage.put(rolesTab, rolesPage);
-        tabToPage.put(securityTab, securityPage);
+        pageFactories.put(accountTab, () -> accountPage);
+        pageFactories.put(rolesTab, this::createRolesPage);
+        pageFactories.put(securityTab, this::createSecurityPage);
 
         tabs.addSelectedChangeListener(_ -> updateVisiblePage());
     }
@@ -173,7 +192,6 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
         pages.setSpacing(true);
 
         pages.add(tabs);
-        tabToPage.values().forEach(pages::add);
 
         updateVisiblePage();
         return pages;
@@ -181,10 +199,41 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
 
     private void updateVisiblePage() {
         Tab selected = tabs.getSelectedTab();
+        if (selected != null) {
+            tabToPage.computeIfAbsent(selected, tab -> {
+                Component page = pageFactories.get(tab).get();
+                pages.add(page);
+                return page;
+            });
+        }
         tabToPage.forEach((tab, page) -> page.setVisible(tab == selected));
     }
 
+    /**
+     * Fields bound to a binder that already has a bean are initialized from it, so a page created
+     * late shows (and edits) the same {@link UserDto} as the others.
+     */
+    private UserRolesTab createRolesPage() {
+        rolesPage = new UserRolesTab();
+        rolesPage.bind(binder);
+        return rolesPage;
+    }
+
+    private UserSecurityTab createSecurityPage() {
+        securityPage = new UserSecurityTab();
+        securityPage.setResetPasswordHandler(this::resetPasswordForCurrentUser);
+        return securityPage;
+    }
+
+    private void clearSensitiveFields() {
+        if (securityPage != null) {
+            securityPage.clearSensitiveFields();
+        }
+    }
+
     private void enterCreateMode() {
+        cancelUserLoad();
+        setLoading(false);
         createMode = true;
         currentUser = new UserDto();
 
@@ -197,17 +246,39 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
         accountPage.setUsernameReadOnly(false);
 
         clearInfoBar();
-        securityPage.clearSensitiveFields();
+        clearSensitiveFields();
     }
 
-    private void enterEditMode(Long userId, BeforeEnterEvent event) {
+    /**
+     * Loads the user in the background; the form stays disabled with a loading indicator until the
+     * result is pushed. Navigating to another user cancels a load still in flight.
+     */
+    private void enterEditMode(Long userId) {
         createMode = false;
+        cancelUserLoad();
+
+        currentUser = null;
+        binder.setBean(null);
+        clearInfoBar();
+        clearSensitiveFields();
+        setLoading(true);
+
+        userLoad = backgroundLoader.load(UI.getCurrent(), () -> userService.findUserById(userId),
+                this::showLoadedUser,
+                _ -> {
+                    setLoading(false);
+                    Notification.show(getTranslation("view.userEdit.notification.loadFailed"), 5000,
+                            Notification.Position.MIDDLE);
+                });
+    }
+
+    private void showLoadedUser(Optional<UserDto> loaded) {
+        setLoading(false);
 
-        Optional<UserDto> loaded = userService.findUserById(userId);
         if (loaded.isEmpty()) {
             Notification.show(getTranslation("view.userEdit.notification.notFound"), 5000,
                     Notification.Position.MIDDLE);
-            event.forwardTo(UserManagementView.class);
+            getUI().ifPresent(ui -> ui.navigate(UserManagementView.class));
             return;
         }
 
@@ -217,7 +288,20 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
         accountPage.setUsernameReadOnly(true);
 
         populateInfoBar(currentUser);
-        securityPage.clearSensitiveFields();
+        clearSensitiveFields();
+    }
+
+    private void setLoading(boolean loading) {
+        loadingIndicator.setVisible(loading);
+        pages.setEnabled(!loading);
+        saveButton.setEnabled(!loading);
+    }
+
+    private void cancelUserLoad() {
+        if (userLoad != null) {
+            userLoad.cancel();
+            userLoad = null;
+        }
     }
 
     private void saveUser() {
@@ -233,7 +317,7 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
             return;
         }
 
-        if (securityPage.hasAnyPasswordInput()) {
+        if (securityPage != null && securityPage.hasAnyPasswordInput()) {
             Notification.show(getTranslation("view.userEdit.notification.passwordChangeUseReset"), 5000,
                     Notification.Position.MIDDLE);
             return;
@@ -268,7 +352,7 @@ public class UserEditView extends VerticalLayout implements BeforeEnterObserver
 
         try {
             userService.resetPassword(currentUser.getId(), rawPassword);
-            securityPage.clearSensitiveFields();
+            clearSensitiveFields();
             Notification.show(getTranslation("view.userEdit.notification.passwordResetOk"), 3000,
                     Notification.Position.BOTTOM_START);
         } catch (RuntimeException ex) {
@@ -1,43 +1,136 @@
 package com.vaaskel.ui.views.admin;
 
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.confirmdialog.ConfirmDialog;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.component.contextmenu.SubMenu;
+import com.vaadin.flow.component.dependency.Uses;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.Grid.SelectionMode;
 import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.menubar.MenuBar;
 import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.CallbackDataProvider;
 import com.vaadin.flow.data.provider.ConfigurableFilterDataProvider;
-import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.SortDirection;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaaskel.api.user.UserDto;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.security.AuthenticatedUser;
+import com.vaaskel.security.AuthenticatedUserSnapshot;
+import com.vaaskel.service.user.UserBulkAction;
+import com.vaaskel.service.user.UserBulkException;
+import com.vaaskel.service.user.UserBulkResult;
+import com.vaaskel.service.user.UserSelection;
 import com.vaaskel.service.user.UserService;
+import com.vaaskel.ui.components.ClientTime;
+import com.vaaskel.ui.util.BackgroundLoader;
+import com.vaaskel.ui.util.BackgroundLoader.PendingLoad;
 import com.vaaskel.ui.util.DateTimeRenderers;
+import com.vaaskel.ui.util.KeysetPager;
 import jakarta.annotation.security.RolesAllowed;
+import org.springframework.beans.factory.annotation.Value;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Admin grid of all users.
+ * <p>
+ * The first page and the count of every filter are loaded in the background (see {@link BackgroundLoader}),
+ * and while the admin scrolls sequentially the next page is read ahead in the background as well, so the
+ * grid's fetch callbacks are normally served from memory. A fetch the read-ahead did not cover (a scrollbar
+ * jump, or a page whose read-ahead was cancelled) still runs its query synchronously under the session
+ * lock; that is one indexed page query of {@code limit} rows, never a scan from the start.
+ * <p>
+ * Rows are in id order unless the admin sorts by the changedAt column; that order is paged with
+ * (changedAt, id) keysets and is not read ahead.
+ */
 @Route(value = "admin/users")
 @PageTitle("User Management")
 @Menu(order = 10, icon = LineAwesomeIconUrl.USER_SOLID)
 @RolesAllowed("ADMIN")
+@Uses(ClientTime.class)
 public class UserManagementView extends Div {
+    // Grows the estimated size by this many rows whenever the admin scrolls past its end
+    private static final int ITEM_COUNT_ESTIMATE_INCREASE = 500;
+
+    // Rows loaded in the background per filter change and per read-ahead
+    private static final int PREFETCH_SIZE = 100;
+
+    private static final String CHANGED_AT = "changedAt";
+
     private final UserService userService;
+    private final BackgroundLoader backgroundLoader;
+    private final AuthenticatedUser authenticatedUser;
+
+    // false: undefined-size grid that never runs a count query; true: exact count on every filter change
+    private final boolean exactCount;
 
     // Grid and UI components
     private final Grid<UserDto> grid = new Grid<>(UserDto.class, false);
     private final Button newUserButton = new Button();
     private final TextField usernameFilter = new TextField();
+    private final MenuBar bulkActions = new MenuBar();
+    private final ProgressBar loadingIndicator = new ProgressBar();
+    private final ProgressBar bulkProgress = new ProgressBar();
 
     // Data provider with filter support
     private ConfigurableFilterDataProvider<UserDto, Void, String> dataProvider;
 
-    public UserManagementView(UserService userService) {
+    // Remembers the last id of each fetched page so the grid can seek instead of OFFSET-scan
+    private final KeysetPager<UserDto, Long> pager = new KeysetPager<>(UserDto::getId);
+    // Sorted by changedAt: the last row is the (changedAt, id) key
+    private final KeysetPager<UserDto, UserDto> changedAtPager = new KeysetPager<>(row -> row);
+    private Boolean changedAtNewestFirst;
+
+    // Rows (and count) loaded in the background; the grid's fetch callbacks are served from here when possible
+    private Prefetch prefetch;
+    private PendingLoad filterLoad;
+    private PendingLoad readAheadLoad;
+
+    // Count of the current filter, loaded together with its first page
+    private String countedFilter;
+    private Long filterCount;
+
+    // Read-ahead requested by the last fetch; started after the fetch has been answered, not from the callback
+    private ReadAheadRequest pendingReadAhead;
+
+    private record ReadAheadRequest(String filter, Long afterId) {
+    }
+
+    private record Prefetch(String filter, Long afterId, int requested, List<UserDto> rows, Long count) {
+
+        boolean covers(String otherFilter, Long otherAfterId, int n) {
+            return Objects.equals(filter, otherFilter) && Objects.equals(afterId, otherAfterId)
+                    && (rows.size() >= n || rows.size() < requested);
+        }
+    }
+
+    public UserManagementView(UserService userService, BackgroundLoader backgroundLoader,
+            AuthenticatedUser authenticatedUser,
+            @Value("${vaaskel.admin.users.exact-count:false}") boolean exactCount) {
         this.userService = userService;
+        this.backgroundLoader = backgroundLoader;
+        this.authenticatedUser = authenticatedUser;
+        this.exactCount = exactCount;
 
         setSizeFull();
 
@@ -46,8 +139,25 @@ public class UserManagementView extends Div {
 
         HorizontalLayout toolbar = buildToolbar();
 
+        loadingIndicator.setIndeterminate(true);
+        loadingIndicator.setVisible(false);
+        bulkProgress.setVisible(false);
+
         grid.setSizeFull();
-        add(toolbar, grid);
+        add(toolbar, loadingIndicator, bulkProgress, grid);
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        // The grid gets its data provider once the first page has been loaded in the background
+        applyFilter();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        cancelLoads();
+        super.onDetach(detachEvent);
     }
 
     private HorizontalLayout buildToolbar() {
@@ -62,8 +172,10 @@ public class UserManagementView extends Div {
         usernameFilter.setValueChangeMode(ValueChangeMode.LAZY);
         usernameFilter.addValueChangeListener(_ -> applyFilter());
 
+        configureBulkActions();
+
         // Toolbar layout
-        HorizontalLayout toolbar = new HorizontalLayout(newUserButton, usernameFilter);
+        HorizontalLayout toolbar = new HorizontalLayout(newUserButton, bulkActions, usernameFilter);
         toolbar.setWidthFull();
         toolbar.setAlignItems(Alignment.END);
         toolbar.expand(usernameFilter);
@@ -71,37 +183,248 @@ public class UserManagementView extends Div {
         return toolbar;
     }
 
-    private void applyFilter() {
-        if (dataProvider == null) {
+    private void configureBulkActions() {
+        SubMenu actions = bulkActions.addItem(getTranslation("view.userManagement.bulk")).getSubMenu();
+
+        for (UserBulkAction action : UserBulkAction.values()) {
+            MenuItem item = actions.addItem(getTranslation("view.userManagement.bulk.action." + action.name()));
+            if (action.requiresRole()) {
+                for (UserRoleType role : UserRoleType.values()) {
+                    item.getSubMenu().addItem(getTranslation("role." + role.name()),
+                            _ -> confirmBulkAction(action, role));
+                }
+            } else {
+                item.addClickListener(_ -> confirmBulkAction(action, null));
+            }
+        }
+    }
+
+    /**
+     * Bulk actions apply to the selected users, or to all users matching the filter if none are selected.
+     * The number of affected users is counted in the background and confirmed before anything is changed.
+     * Actions that revoke access never apply to the signed-in admin.
+     */
+    private void confirmBulkAction(UserBulkAction action, UserRoleType role) {
+        Set<UserDto> selected = grid.getSelectedItems();
+        UserSelection selection = selected.isEmpty() ? UserSelection.matching(usernameFilter.getValue())
+                : UserSelection.ofIds(selected.stream().map(UserDto::getId).collect(Collectors.toSet()));
+
+        getUI().ifPresent(ui -> backgroundLoader.load(ui, () -> userService.countSelection(selection),
+                count -> {
+                    String label = getTranslation("view.userManagement.bulk.action." + action.name())
+                            + (role != null ? ": " + getTranslation("role." + role.name()) : "");
+
+                    ConfirmDialog dialog = new ConfirmDialog();
+                    dialog.setHeader(getTranslation("view.userManagement.bulk.confirm.header", label));
+                    dialog.setText(getTranslation(selection.isIds() ? "view.userManagement.bulk.confirm.selected"
+                            : "view.userManagement.bulk.confirm.filter", count));
+                    dialog.setConfirmText(getTranslation("view.userManagement.bulk.confirm.button"));
+                    dialog.setCancelable(true);
+                    dialog.addConfirmListener(_ -> runBulkAction(ui, action, role, selection, count));
+                    dialog.open();
+                },
+                this::bulkActionFailed));
+    }
+
+    private void runBulkAction(UI ui, UserBulkAction action, UserRoleType role, UserSelection selection,
+            long count) {
+        bulkActions.setEnabled(false);
+        bulkProgress.setMin(0);
+        bulkProgress.setMax(Math.max(1, count));
+        bulkProgress.setValue(0);
+        bulkProgress.setVisible(true);
+
+        Long actingUserId = authenticatedUser.getSnapshot().map(AuthenticatedUserSnapshot::id).orElse(null);
+
+        // Runs on the bulk pool, not on the background loader that serves the grid reads
+        userService.applyBulkAction(action, role, selection, actingUserId,
+                        processed -> showBulkProgress(ui, processed))
+                .whenComplete((result, failure) -> {
+                    try {
+                        ui.access(() -> {
+                            if (failure != null) {
+                                bulkActionFailed(failure);
+                            } else {
+                                bulkActionDone(result);
+                            }
+                        });
+                    } catch (UIDetachedException e) {
+                        // The view was closed; the outcome is in the log
+                    }
+                });
+    }
+
+    // Called from the background thread after every chunk
+    private void showBulkProgress(UI ui, long processed) {
+        try {
+            ui.access(() -> bulkProgress.setValue(Math.min(processed, bulkProgress.getMax())));
+        } catch (UIDetachedException e) {
+            // The view was closed; the action continues
+        }
+    }
+
+    private void bulkActionDone(UserBulkResult result) {
+        bulkProgress.setVisible(false);
+        bulkActions.setEnabled(true);
+        Notification.show(getTranslation("view.userManagement.bulk.done", result.changedUsers(),
+                result.selectedUsers()), 5000, Notification.Position.BOTTOM_START);
+
+        grid.deselectAll();
+        applyFilter();
+    }
+
+    private void bulkActionFailed(Throwable failure) {
+        bulkProgress.setVisible(false);
+        bulkActions.setEnabled(true);
+
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof UserBulkException partial && partial.getCommittedChunks() > 0) {
+            Notification.show(getTranslation("view.userManagement.bulk.failed.partial",
+                    partial.getCommitted().changedUsers(), partial.getCommittedChunks()), 8000,
+                    Notification.Position.MIDDLE);
+            applyFilter();
             return;
         }
+        Notification.show(getTranslation("view.userManagement.bulk.failed"), 5000, Notification.Position.MIDDLE);
+    }
+
+    /**
+     * Loads the first rows and the count (or size estimate) for the current filter in the background and only
+     * then hands the filter to the grid, whose fetch is served from the prefetched rows. A newer filter value
+     * cancels a load still in flight.
+     */
+    private void applyFilter() {
         String filterValue = usernameFilter.getValue();
-        dataProvider.setFilter(
-                (filterValue == null || filterValue.isBlank())
-                        ? null
-                        : filterValue.trim()
-        );
+        String filter = (filterValue == null || filterValue.isBlank())
+                ? null
+                : filterValue.trim();
+
+        cancelLoads();
+        loadingIndicator.setVisible(true);
+
+        getUI().ifPresent(ui -> filterLoad = backgroundLoader.load(ui,
+                () -> {
+                    List<UserDto> rows = fetchAfter(filter, null, PREFETCH_SIZE);
+                    return new Prefetch(filter, null, PREFETCH_SIZE, rows,
+                            exactCount ? count(filter) : estimate(filter, rows));
+                },
+                loaded -> {
+                    prefetch = loaded;
+                    countedFilter = loaded.filter();
+                    filterCount = exactCount ? loaded.count() : null;
+                    loadingIndicator.setVisible(false);
+                    showFilter(loaded);
+                },
+                this::loadFailed));
+    }
+
+    private void showFilter(Prefetch loaded) {
+        pager.reset();
+        changedAtPager.reset();
+
+        if (grid.getDataProvider() != dataProvider) {
+            grid.setDataProvider(dataProvider);
+        }
+
+        if (!exactCount) {
+            // Undefined size: the count callback is never called, the grid starts from the filter's estimate
+            // and learns the real size when a fetch returns fewer rows than requested.
+            var lazyDataView = grid.getLazyDataView();
+            lazyDataView.setItemCountEstimate((int) Math.clamp(loaded.count(), 1, Integer.MAX_VALUE));
+            lazyDataView.setItemCountEstimateIncrease(ITEM_COUNT_ESTIMATE_INCREASE);
+        }
+        dataProvider.setFilter(loaded.filter());
+    }
+
+    /**
+     * Size estimate for a filter: exact if the first rows are the whole result, otherwise the username index
+     * count (the index size without a filter), so no COUNT query runs once the index is built.
+     */
+    private long estimate(String filter, List<UserDto> firstRows) {
+        if (firstRows.size() < PREFETCH_SIZE) {
+            return firstRows.size();
+        }
+        return filter == null ? userService.estimateUserCount() : userService.countUsersByUsername(filter);
+    }
+
+    /**
+     * Remembers the page to read ahead and starts loading it before the response is sent, outside the
+     * data provider callback. Only the last request of a round trip is loaded.
+     */
+    private void scheduleReadAhead(String filter, Long afterId) {
+        boolean scheduled = pendingReadAhead != null;
+        pendingReadAhead = new ReadAheadRequest(filter, afterId);
+
+        if (!scheduled) {
+            getUI().ifPresent(ui -> ui.beforeClientResponse(grid, _ -> {
+                ReadAheadRequest request = pendingReadAhead;
+                pendingReadAhead = null;
+                if (request != null) {
+                    readAhead(request.filter(), request.afterId());
+                }
+            }));
+        }
+    }
+
+    /**
+     * Loads the rows after the last fetched one in the background, so scrolling usually finds them ready.
+     */
+    private void readAhead(String filter, Long afterId) {
+        if (readAheadLoad != null) {
+            readAheadLoad.cancel();
+        }
+
+        getUI().ifPresent(ui -> readAheadLoad = backgroundLoader.load(ui,
+                () -> new Prefetch(filter, afterId, PREFETCH_SIZE, fetchAfter(filter, afterId, PREFETCH_SIZE), null),
+                loaded -> prefetch = loaded,
+                _ -> {
+                    // Read-ahead is best effort, the grid falls back to a direct fetch
+                }));
+    }
+
+    private void cancelLoads() {
+        pendingReadAhead = null;
+        if (filterLoad != null) {
+            filterLoad.cancel();
+            filterLoad = null;
+        }
+        if (readAheadLoad != null) {
+            readAheadLoad.cancel();
+            readAheadLoad = null;
+        }
+    }
+
+    private void loadFailed(RuntimeException e) {
+        loadingIndicator.setVisible(false);
+        Notification.show(getTranslation("view.userManagement.loadFailed"), 5000, Notification.Position.MIDDLE);
     }
 
 
     private void configureGrid() {
-        grid.setSelectionMode(SelectionMode.SINGLE);
+        // Multi-select for bulk actions; without a selection they apply to the current filter
+        grid.setSelectionMode(SelectionMode.MULTI);
 
         // Grid columns (I18N headers)
         grid.addColumn(UserDto::getId)
                 .setHeader(getTranslation("view.userManagement.grid.id"))
-                .setAutoWidth(true)
-                .setSortable(true);
+                .setAutoWidth(true);
 
         grid.addColumn(UserDto::getUsername)
                 .setHeader(getTranslation("view.userManagement.grid.username"))
-                .setAutoWidth(true)
-                .setSortable(true);
+                .setAutoWidth(true);
+
+        // Roles are filled for the whole page by the service (one query per page, no N+1)
+        grid.addColumn(dto -> formatRoles(dto.getRoles()))
+                .setHeader(getTranslation("view.userManagement.grid.roles"))
+                .setAutoWidth(true);
 
-        grid.addColumn(DateTimeRenderers.localDateTimeRenderer(UserDto::getChangedAt))
+        // Formatted in the browser: rows carry epoch seconds only. The only sortable column: rows are in id
+        // order otherwise, both orders are paged with keysets.
+        grid.addColumn(DateTimeRenderers.clientDateTimeRenderer(UserDto::getChangedAt))
                 .setHeader(getTranslation("changedAt"))
                 .setAutoWidth(true)
-                .setSortable(true);
+                .setSortProperty(CHANGED_AT);
 
         // Double-click → open user edit view
         grid.addItemDoubleClickListener(event -> {
@@ -112,38 +435,90 @@ public class UserManagementView extends Div {
         });
     }
 
+    private String formatRoles(Set<UserRoleType> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return "";
+        }
+        return roles.stream()
+                .map(role -> getTranslation("role." + role.name()))
+                .collect(Collectors.joining(", "));
+    }
+
+    private List<UserDto> fetchAfter(String filter, Long lastSeenId, int n) {
+        if (filter == null) {
+            return userService.findUsersAfterId(lastSeenId, n);
+        }
+        return userService.findUsersByUsernameAfterId(filter, lastSeenId, n);
+    }
+
+    // Scrollbar jumps far from any known row: one OFFSET query for just the visible page
+    private List<UserDto> fetchAt(String filter, int offset, int n) {
+        if (filter == null) {
+            return userService.findUsers(offset, n);
+        }
+        return userService.findUsersByUsername(filter, offset, n);
+    }
+
+    private long count(String filter) {
+        return filter == null ? userService.countUsers() : userService.countUsersByUsername(filter);
+    }
+
     private void configureDataProvider() {
         CallbackDataProvider.FetchCallback<UserDto, String> fetchCallback = query -> {
-            int offset = query.getOffset();
-            int limit = query.getLimit();
             String filter = query.getFilter().orElse(null);
 
-            if (filter == null || filter.isBlank()) {
-                return userService.findUsers(offset, limit).stream();
-            } else {
-                return userService.findUsersByUsername(filter.trim(), offset, limit).stream();
+            if (!query.getSortOrders().isEmpty()) {
+                boolean newestFirst = query.getSortOrders().getFirst().getDirection() == SortDirection.DESCENDING;
+                return fetchByChangedAt(filter, newestFirst, query.getOffset(), query.getLimit());
             }
+
+            return pager.fetch(query.getOffset(), query.getLimit(), (lastSeenId, n) -> {
+                List<UserDto> rows;
+                if (prefetch != null && prefetch.covers(filter, lastSeenId, n)) {
+                    rows = prefetch.rows().subList(0, Math.min(n, prefetch.rows().size()));
+                } else {
+                    // Not read ahead (cancelled, or just past a jump): one page, synchronously
+                    rows = fetchAfter(filter, lastSeenId, n);
+                }
+
+                if (rows.size() == n) {
+                    scheduleReadAhead(filter, rows.getLast().getId());
+                }
+                return rows;
+            }, (offset, n) -> fetchAt(filter, offset, n));
         };
 
         CallbackDataProvider.CountCallback<UserDto, String> countCallback = query -> {
             String filter = query.getFilter().orElse(null);
 
-            if (filter == null || filter.isBlank()) {
-                return (int) userService.countUsers();
-            } else {
-                return (int) userService.countUsersByUsername(filter.trim());
+            // Loaded with the filter's first page; read-ahead replaces the prefetched rows but not the count
+            if (filterCount != null && Objects.equals(countedFilter, filter)) {
+                return (int) Math.min(filterCount, Integer.MAX_VALUE);
             }
+            return (int) Math.min(count(filter), Integer.MAX_VALUE);
         };
 
-        // Create the underlying callback data provider
-        var callbackDataProvider =
-                DataProvider.fromFilteringCallbacks(fetchCallback, countCallback);
+        // Create the underlying callback data provider; rows are identified by id, so the multi-selection
+        // survives re-fetches (new DTO instances)
+        var callbackDataProvider = new CallbackDataProvider<>(fetchCallback, countCallback, UserDto::getId);
 
-        // Wrap it into a configurable filter data provider
+        // Wrap it into a configurable filter data provider; set on the grid after the first background load
         dataProvider = callbackDataProvider.withConfigurableFilter();
+    }
+
+    /**
+     * Rows in changedAt order (the only sortable column), paged with (changedAt, id) keysets; not prefetched.
+     */
+    private Stream<UserDto> fetchByChangedAt(String filter, boolean newestFirst, int offset, int limit) {
+        if (!Objects.equals(changedAtNewestFirst, newestFirst)) {
+            changedAtPager.reset();
+            changedAtNewestFirst = newestFirst;
+        }
 
-        // Use the configurable data provider for the grid
-        grid.setDataProvider(dataProvider);
+        return changedAtPager.fetch(offset, limit,
+                (last, n) -> userService.findUsersByChangedAt(filter, newestFirst,
+                        last != null ? last.getChangedAt() : null, last != null ? last.getId() : null, n),
+                (jumpOffset, n) -> userService.findUsersByChangedAt(filter, newestFirst, jumpOffset, n));
     }
 
     private void navigateToNewUser() {
@@ -56,7 +56,7 @@ public class LoginView extends LoginOverlay implements BeforeEnterObserver, HasD
 
     @Override
     public void beforeEnter(BeforeEnterEvent event) {
-        if (authenticatedUser.get().isPresent()) {
+        if (authenticatedUser.isAuthenticated()) {
             setOpened(false);
             event.forwardTo("");
         }
@@ -0,0 +1,6 @@
+-- V2__users_keyset_index.sql
+-- Supports keyset pagination ordered by (changed_at, id)
+-- Target: PostgreSQL
+
+CREATE INDEX ix_users_changed_at_id
+    ON public.users (changed_at, id);
@@ -0,0 +1,52 @@
+package com.vaaskel;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AotBuildCheckTest {
+
+    @Test
+    void acceptsTheBuildSettings() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", "true");
+        environment.setActiveProfiles("prod");
+
+        assertThatCode(() -> AotBuildCheck.check(build("prod", "true", "false"), environment))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsAnotherProfile() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("int");
+
+        assertThatThrownBy(() -> AotBuildCheck.check(build("prod", "false", "false"), environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("profiles [int] (built for [prod])");
+    }
+
+    @Test
+    void rejectsChangedConditionProperties() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("vaaskel.datasource.routing.enabled", "true");
+        environment.setActiveProfiles("prod");
+
+        assertThatThrownBy(() -> AotBuildCheck.check(build("prod", "true", "false"), environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("spring.threads.virtual.enabled=false (built for true)")
+                .hasMessageContaining("vaaskel.datasource.routing.enabled=true (built for false)");
+    }
+
+    private static Properties build(String profiles, String virtualThreads, String routing) {
+        Properties build = new Properties();
+        build.setProperty("spring.profiles.active", profiles);
+        build.setProperty("spring.threads.virtual.enabled", virtualThreads);
+        build.setProperty("vaaskel.datasource.routing.enabled", routing);
+        return build;
+    }
+}
@@ -1,12 +1,17 @@
 package com.vaaskel.domain.security.repository;
 
 import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.repository.security.UserListEntry;
 import com.vaaskel.repository.security.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,4 +50,32 @@ class UserRepositoryTest {
         assertThat(found).isPresent();
         assertThat(found.get().getUsername()).isEqualTo(USERNAME);
     }
+
+    @Test
+    void findEntriesByIdGreaterThanShouldSeekPastLastSeenId() {
+        User first = userRepository.save(new User("keyset-1", PASSWORD));
+        User second = userRepository.save(new User("keyset-2", PASSWORD));
+        User third = userRepository.save(new User("keyset-3", PASSWORD));
+
+        List<UserListEntry> page = userRepository.findEntriesByIdGreaterThanOrderByIdAsc(first.getId(),
+                Limit.of(10));
+
+        assertThat(page).extracting(UserListEntry::id).containsExactly(second.getId(), third.getId());
+    }
+
+    @Test
+    void listEntriesShouldProjectGridColumnsInIdOrder() {
+        User first = userRepository.save(new User("entry-1", PASSWORD));
+        User second = userRepository.save(new User("other-2", PASSWORD));
+        User third = userRepository.save(new User("entry-3", PASSWORD));
+
+        List<UserListEntry> matching = userRepository.findEntriesByUsernameContainingIgnoreCase("ENTRY",
+                PageRequest.of(0, 10, Sort.by("id")));
+        assertThat(matching).extracting(UserListEntry::id).containsExactly(first.getId(), third.getId());
+        assertThat(matching.getFirst().username()).isEqualTo("entry-1");
+        assertThat(matching.getFirst().enabled()).isTrue();
+
+        List<UserListEntry> page = userRepository.findEntriesByIdGreaterThanOrderByIdAsc(first.getId(), Limit.of(10));
+        assertThat(page).extracting(UserListEntry::id).containsExactly(second.getId(), third.getId());
+    }
 }
@@ -98,4 +98,22 @@ class UserRoleRepositoryTest {
         assertThat(remainingAdminRoles).isEmpty();
         assertThat(remainingUserRoles).hasSize(1).first().extracting(UserRole::getId).isEqualTo(normalRole.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAssignmentsByUserIdInLoadsRolesOfAllRequestedUsers() {
+        User admin = createAndSaveUser(ADMIN_USERNAME, ADMIN_PASSWORD);
+        User normalUser = createAndSaveUser(USER_USERNAME, USER_PASSWORD);
+
+        createAndSaveUserRole(admin, UserRoleType.ADMIN);
+        createAndSaveUserRole(admin, UserRoleType.USER);
+        createAndSaveUserRole(normalUser, UserRoleType.USER);
+
+        List<UserRoleAssignment> assignments =
+                userRoleRepository.findAssignmentsByUserIdIn(List.of(admin.getId(), normalUser.getId()));
+
+        assertThat(assignments).containsExactlyInAnyOrder(
+                new UserRoleAssignment(admin.getId(), UserRoleType.ADMIN),
+                new UserRoleAssignment(admin.getId(), UserRoleType.USER),
+                new UserRoleAssignment(normalUser.getId(), UserRoleType.USER));
+    }
+}
@@ -0,0 +1,156 @@
+package com.vaaskel.repository.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing against two embedded databases that identify themselves through a marker table.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final AtomicReference<String> session = new AtomicReference<>("session-1");
+    private final AtomicReference<String> node = new AtomicReference<>();
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReadYourWritesTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("routing_primary", "primary");
+        replica = database("routing_replica", "replica");
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), session::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("drop table node");
+        new JdbcTemplate(replica).execute("drop table node");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaOthersToPrimary() {
+        DataSource routing = routing(List.of(replica));
+
+        assertThat(nodeName(routing, true)).isEqualTo("replica");
+        assertThat(nodeName(routing, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void failingReplicaFallsBackToPrimary() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        DataSource routing = routing(List.of(broken));
+
+        assertThat(nodeName(routing, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void sessionReadsItsOwnWritesFromPrimary() {
+        DataSource routing = routing(List.of(replica));
+
+        tracker.markWrite();
+        assertThat(nodeName(routing, true)).isEqualTo("primary");
+
+        session.set("session-2");
+        assertThat(nodeName(routing, true)).isEqualTo("replica");
+    }
+
+    @Test
+    void backgroundTaskReadsItsSessionsWritesFromPrimary() throws Exception {
+        // Like a request thread: the session is only known on the submitting thread
+        ThreadLocal<String> requestSession = new ThreadLocal<>();
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1), requestSession::get);
+        DataSource routing = routing(List.of(replica));
+
+        requestSession.set("session-1");
+        tracker.markWrite();
+        Runnable decorated = tracker.decorate(() -> node.set(nodeName(routing, true)));
+        Runnable undecorated = () -> node.set(nodeName(routing, true));
+        requestSession.remove();
+
+        try (ExecutorService background = Executors.newSingleThreadExecutor()) {
+            background.submit(decorated).get();
+            assertThat(node.get()).isEqualTo("primary");
+
+            background.submit(undecorated).get();
+            assertThat(node.get()).isEqualTo("replica");
+        }
+    }
+
+    @Test
+    void everyPoolUsesTheSharedSettingsAndReportsMetrics() {
+        HikariConfig settings = new HikariConfig();
+        settings.setMaximumPoolSize(3);
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+        dataSourceProperties.setUsername("sa");
+        dataSourceProperties.setPassword("");
+        var replicaSettings = new ReplicaRoutingProperties.Replica("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        ReplicaRoutingProperties properties = new ReplicaRoutingProperties(true, List.of(replicaSettings),
+                Duration.ofMinutes(1), Duration.ofSeconds(10), "", Duration.ofSeconds(5), Duration.ofSeconds(30));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        var meterRegistry = new StaticListableBeanFactory(Map.of("meterRegistry", registry))
+                .getBeanProvider(MeterRegistry.class);
+
+        try (ReadWriteRoutingDataSource routing = new ReplicaRoutingConfiguration().dataSource(dataSourceProperties,
+                properties, tracker, settings, meterRegistry)) {
+            assertThat(nodeName(routing, true)).isEqualTo("replica");
+            assertThat(nodeName(routing, false)).isEqualTo("primary");
+
+            assertThat(routing.pools()).map(HikariDataSource.class::cast)
+                    .allSatisfy(pool -> assertThat(pool.getMaximumPoolSize()).isEqualTo(3))
+                    .extracting(HikariDataSource::getPoolName)
+                    .containsExactly("primary", "replica-0");
+            assertThat(registry.find("hikaricp.connections.max").tag("pool", "primary").gauge()).isNotNull();
+            assertThat(registry.find("hikaricp.connections.max").tag("pool", "replica-0").gauge()).isNotNull();
+        }
+    }
+
+    private DataSource routing(List<DataSource> replicas) {
+        ReplicaPool pool = new ReplicaPool(primary, replicas, tracker, Duration.ofSeconds(10), "",
+                Duration.ofSeconds(30));
+        return new ReadWriteRoutingDataSource(primary, pool);
+    }
+
+    private static String nodeName(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(readOnly);
+        return tx.execute(_ -> new JdbcTemplate(dataSource).queryForObject("select name from node", String.class));
+    }
+
+    private static DataSource database(String name, String node) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table node (name varchar(20))");
+        jdbc.update("insert into node values (?)", node);
+        return dataSource;
+    }
+}
@@ -0,0 +1,147 @@
+package com.vaaskel.security;
+
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.spring.security.AuthenticationContext;
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.settings.UserSettingsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Session snapshot of the authenticated user against a mocked session and repositories.
+ */
+class AuthenticatedUserTest {
+
+    private static final String USERNAME = "alice";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserSettingsRepository userSettingsRepository = mock(UserSettingsRepository.class);
+    private final AuthenticationContext authenticationContext = mock(AuthenticationContext.class);
+    private final UserChangeTracker userChangeTracker = new UserChangeTracker();
+    private final VaadinSession session = mock(VaadinSession.class);
+    private final Map<Class<?>, Object> attributes = new HashMap<>();
+
+    private final User user = new User(USERNAME, "secret");
+
+    @BeforeEach
+    void setUp() {
+        user.setId(1L);
+        user.setVersion(1L);
+        user.getRoles().add(new UserRole(UserRoleType.ADMIN, user));
+
+        when(authenticationContext.getPrincipalName()).thenReturn(Optional.of(USERNAME));
+        when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+        when(userRepository.findVersionByUsername(anyString())).thenAnswer(_ -> Optional.of(user.getVersion()));
+        when(userSettingsRepository.findByUserId(1L)).thenReturn(Optional.empty());
+
+        when(session.hasLock()).thenReturn(true);
+        when(session.getAttribute(AuthenticatedUserSnapshot.class))
+                .thenAnswer(_ -> attributes.get(AuthenticatedUserSnapshot.class));
+        doAnswer(invocation -> attributes.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(session).setAttribute(eq(AuthenticatedUserSnapshot.class), any());
+        VaadinSession.setCurrent(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CurrentInstance.clearAll();
+    }
+
+    private AuthenticatedUser authenticatedUser(Duration revalidateAfter) {
+        return new AuthenticatedUser(userRepository, userSettingsRepository, authenticationContext,
+                userChangeTracker, revalidateAfter);
+    }
+
+    @Test
+    void snapshotIsLoadedOncePerSession() {
+        AuthenticatedUser authenticatedUser = authenticatedUser(Duration.ofMinutes(1));
+
+        AuthenticatedUserSnapshot first = authenticatedUser.getSnapshot().orElseThrow();
+        AuthenticatedUserSnapshot second = authenticatedUser.getSnapshot().orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.roles()).containsExactly(UserRoleType.ADMIN);
+        verify(userRepository, times(1)).findByUsername(USERNAME);
+        verify(userRepository, never()).findVersionByUsername(anyString());
+    }
+
+    @Test
+    void trackedChangeReloadsTheSnapshot() {
+        AuthenticatedUser authenticatedUser = authenticatedUser(Duration.ofMinutes(1));
+        authenticatedUser.getSnapshot();
+
+        userChangeTracker.markChanged(USERNAME);
+        AuthenticatedUserSnapshot reloaded = authenticatedUser.getSnapshot().orElseThrow();
+
+        assertThat(reloaded.changeStamp()).isEqualTo(1);
+        verify(userRepository, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    void staleSnapshotWithUnchangedVersionIsOnlyReverified() {
+        AuthenticatedUser authenticatedUser = authenticatedUser(Duration.ZERO);
+        AuthenticatedUserSnapshot first = authenticatedUser.getSnapshot().orElseThrow();
+
+        AuthenticatedUserSnapshot reverified = authenticatedUser.getSnapshot().orElseThrow();
+
+        assertThat(reverified.version()).isEqualTo(first.version());
+        assertThat(reverified.verifiedAt()).isAfterOrEqualTo(first.verifiedAt());
+        assertThat(attributes.get(AuthenticatedUserSnapshot.class)).isSameAs(reverified);
+        verify(userRepository, times(1)).findByUsername(USERNAME);
+        verify(userRepository, times(1)).findVersionByUsername(USERNAME);
+    }
+
+    @Test
+    void staleSnapshotWithUntrackedWriteIsReloaded() {
+        AuthenticatedUser authenticatedUser = authenticatedUser(Duration.ZERO);
+        authenticatedUser.getSnapshot();
+
+        // e.g. a password change through UserRepository.updatePasswordHash, which bypasses the tracker
+        user.setVersion(2L);
+        AuthenticatedUserSnapshot reloaded = authenticatedUser.getSnapshot().orElseThrow();
+
+        assertThat(reloaded.version()).isEqualTo(2L);
+        verify(userRepository, times(2)).findByUsername(USERNAME);
+    }
+
+    @Test
+    void snapshotIsOnlyStoredUnderTheSessionLock() {
+        when(session.hasLock()).thenReturn(false);
+        AuthenticatedUser authenticatedUser = authenticatedUser(Duration.ofMinutes(1));
+
+        assertThat(authenticatedUser.getSnapshot()).isPresent();
+
+        verify(session, never()).setAttribute(eq(AuthenticatedUserSnapshot.class), any());
+        assertThat(attributes).isEmpty();
+    }
+
+    @Test
+    void anonymousUserHasNoSnapshot() {
+        when(authenticationContext.getPrincipalName()).thenReturn(Optional.empty());
+
+        assertThat(authenticatedUser(Duration.ofMinutes(1)).getSnapshot()).isEmpty();
+
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+}
@@ -0,0 +1,64 @@
+package com.vaaskel.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BasicAuthThrottlingFilterTest {
+
+    private final LoginThrottle loginThrottle = new LoginThrottle(64, 1000, 2, Duration.ofMinutes(1), 100,
+            Duration.ofSeconds(1), 10, Duration.ofMinutes(15));
+    private final BasicAuthThrottlingFilter filter = new BasicAuthThrottlingFilter(loginThrottle, false);
+
+    @Test
+    void basicCredentialsOverTheUsernameLimitAreRejectedBeforeAuthentication() throws Exception {
+        assertThat(scrape("admin", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(scrape("admin", "10.0.0.2").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = scrape("admin", "10.0.0.3");
+
+        assertThat(rejected.getStatus()).isEqualTo(401);
+        assertThat(rejected.getHeader(HttpHeaders.WWW_AUTHENTICATE)).startsWith("Basic");
+        assertThat(loginThrottle.usernameRejectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsWithoutBasicCredentialsAreNotCounted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(loginThrottle.attemptCount()).isZero();
+    }
+
+    @Test
+    void usernameIsTakenFromTheBasicHeader() {
+        assertThat(BasicAuthThrottlingFilter.username(basic("admin", "se:cret"))).isEqualTo("admin");
+        assertThat(BasicAuthThrottlingFilter.username("Basic not-base64!")).isNull();
+    }
+
+    private MockHttpServletResponse scrape(String username, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.setRemoteAddr(address);
+        request.addHeader(HttpHeaders.AUTHORIZATION, basic(username, "wrong"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+}
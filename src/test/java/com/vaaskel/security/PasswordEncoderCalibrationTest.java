@@ -0,0 +1,42 @@
+package com.vaaskel.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordEncoderCalibrationTest {
+
+    @Test
+    void newHashesCarryAlgorithmPrefixAndAreCurrent() {
+        PasswordEncoder encoder = PasswordEncoderCalibration.delegating(5);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void legacyAndWeakerHashesStillMatchButNeedUpgrade() {
+        PasswordEncoder encoder = PasswordEncoderCalibration.delegating(6);
+
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(5).encode("secret");
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+        assertThat(encoder.matches("secret", weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        assertThat(PasswordEncoderCalibration.calibrateBcryptStrength(Duration.ZERO, 4, 6)).isEqualTo(4);
+        assertThat(PasswordEncoderCalibration.calibrateBcryptStrength(Duration.ofMinutes(1), 4, 6)).isEqualTo(6);
+    }
+}
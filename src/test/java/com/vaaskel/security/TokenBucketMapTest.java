@@ -0,0 +1,42 @@
+package com.vaaskel.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketMapTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void sprayedKeysDoNotDrainAnotherKeysBucket() {
+        TokenBucketMap buckets = new TokenBucketMap(10_000, 2, Duration.ofSeconds(30), clock::get);
+
+        for (int i = 0; i < 5_000; i++) {
+            buckets.tryAcquire("random-" + i);
+            buckets.tryAcquire("random-" + i);
+        }
+
+        assertThat(buckets.tryAcquire("alice")).isTrue();
+        assertThat(buckets.tryAcquire("alice")).isTrue();
+        assertThat(buckets.tryAcquire("alice")).isFalse();
+    }
+
+    @Test
+    void refilledBucketsAreDropped() {
+        TokenBucketMap buckets = new TokenBucketMap(100, 2, Duration.ofSeconds(1), clock::get);
+
+        assertThat(buckets.tryAcquire("bob")).isTrue();
+        assertThat(buckets.size()).isEqualTo(1);
+
+        clock.addAndGet(Duration.ofSeconds(3).toMillis());
+
+        assertThat(buckets.size()).isZero();
+        assertThat(buckets.tryAcquire("bob")).isTrue();
+        assertThat(buckets.tryAcquire("bob")).isTrue();
+        assertThat(buckets.tryAcquire("bob")).isFalse();
+    }
+}
@@ -0,0 +1,55 @@
+package com.vaaskel.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketStripesTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    void allowsBurstThenRejectsUntilRefilled() {
+        TokenBucketStripes buckets = new TokenBucketStripes(64, 3, Duration.ofSeconds(10), clock::get);
+
+        assertThat(buckets.tryAcquire("alice")).isTrue();
+        assertThat(buckets.tryAcquire("alice")).isTrue();
+        assertThat(buckets.tryAcquire("alice")).isTrue();
+        assertThat(buckets.tryAcquire("alice")).isFalse();
+
+        clock.addAndGet(9_999);
+        assertThat(buckets.tryAcquire("alice")).isFalse();
+
+        clock.addAndGet(1);
+        assertThat(buckets.tryAcquire("alice")).isTrue();
+        assertThat(buckets.tryAcquire("alice")).isFalse();
+    }
+
+    @Test
+    void rejectedAttemptsDoNotDelayRefill() {
+        TokenBucketStripes buckets = new TokenBucketStripes(64, 1, Duration.ofSeconds(1), clock::get);
+
+        assertThat(buckets.tryAcquire("bob")).isTrue();
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(90);
+            assertThat(buckets.tryAcquire("bob")).isFalse();
+        }
+
+        clock.addAndGet(100);
+        assertThat(buckets.tryAcquire("bob")).isTrue();
+    }
+
+    @Test
+    void fullyRefilledBucketDoesNotExceedCapacity() {
+        TokenBucketStripes buckets = new TokenBucketStripes(64, 2, Duration.ofSeconds(1), clock::get);
+
+        clock.addAndGet(Duration.ofHours(1).toMillis());
+
+        assertThat(buckets.tryAcquire("carol")).isTrue();
+        assertThat(buckets.tryAcquire("carol")).isTrue();
+        assertThat(buckets.tryAcquire("carol")).isFalse();
+    }
+}
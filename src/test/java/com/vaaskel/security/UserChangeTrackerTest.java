@@ -0,0 +1,29 @@
+package com.vaaskel.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserChangeTrackerTest {
+
+    private final UserChangeTracker tracker = new UserChangeTracker();
+
+    @Test
+    void stampGrowsPerUsername() {
+        assertThat(tracker.stamp("alice")).isZero();
+
+        tracker.markChanged("alice");
+        tracker.markChanged("alice");
+        tracker.markChanged("bob");
+
+        assertThat(tracker.stamp("alice")).isEqualTo(2);
+        assertThat(tracker.stamp("bob")).isEqualTo(1);
+    }
+
+    @Test
+    void nullUsernameIsIgnored() {
+        tracker.markChanged(null);
+
+        assertThat(tracker.stamp(null)).isZero();
+    }
+}
@@ -0,0 +1,75 @@
+package com.vaaskel.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserDetailsCacheTest {
+
+    private final UserDetailsCache cache = new UserDetailsCache(100, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, UserDetails> loader = username -> {
+        loads.incrementAndGet();
+        return User.withUsername(username).password("{noop}secret").roles("USER").build();
+    };
+
+    @Test
+    void servesCopiesFromTheCache() {
+        UserDetails first = cache.get("alice", loader);
+        ((CredentialsContainer) first).eraseCredentials();
+
+        UserDetails second = cache.get("alice", loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("{noop}secret");
+        assertThat(cache.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictionReloadsOnlyTheChangedUser() {
+        cache.get("alice", loader);
+        cache.get("bob", loader);
+
+        cache.evict("alice");
+        cache.get("alice", loader);
+        cache.get("bob", loader);
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.invalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictAllReloadsEveryUser() {
+        cache.get("alice", loader);
+        cache.get("bob", loader);
+
+        cache.evictAll();
+        cache.get("alice", loader);
+        cache.get("bob", loader);
+
+        assertThat(loads).hasValue(4);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void failedLookupsAreNotCached() {
+        assertThatThrownBy(() -> cache.get("ghost", _ -> {
+            throw new UsernameNotFoundException("ghost");
+        })).isInstanceOf(UsernameNotFoundException.class);
+
+        cache.get("ghost", loader);
+
+        assertThat(loads).hasValue(1);
+    }
+}
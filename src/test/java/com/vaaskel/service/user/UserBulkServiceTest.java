@@ -0,0 +1,188 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import com.vaaskel.security.UserChangeTracker;
+import com.vaaskel.security.UserDetailsCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserBulkService.class, UserDetailsCache.class, UserChangeTracker.class})
+@TestPropertySource(properties = "vaaskel.bulk.chunk-size=2")
+class UserBulkServiceTest {
+
+    @Autowired
+    private UserBulkService bulkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private UserChangeTracker userChangeTracker;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User createUser(String username) {
+        User user = userRepository.save(new User(username, "secret"));
+        userRoleRepository.save(new UserRole(UserRoleType.USER, user));
+        return user;
+    }
+
+    private User reload(User user) {
+        entityManager.flush();
+        entityManager.clear();
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    @Test
+    void disableSelectedUsersOnlyVersionsChangedRows() {
+        User first = createUser("bulk-1");
+        User second = createUser("bulk-2");
+        User third = createUser("bulk-3");
+        second.setEnabled(false);
+        entityManager.flush();
+        long secondVersion = reload(second).getVersion();
+
+        List<Long> progress = new ArrayList<>();
+        UserBulkResult result = bulkService.apply(UserBulkAction.DISABLE, null,
+                UserSelection.ofIds(Set.of(first.getId(), second.getId(), third.getId())), null, progress::add);
+
+        assertThat(result.selectedUsers()).isEqualTo(3);
+        assertThat(result.changedUsers()).isEqualTo(2);
+        assertThat(progress).containsExactly(2L, 3L);
+
+        assertThat(reload(first).isEnabled()).isFalse();
+        assertThat(reload(first).getVersion()).isEqualTo(first.getVersion() + 1);
+        assertThat(reload(second).getVersion()).isEqualTo(secondVersion);
+        assertThat(userChangeTracker.stamp("bulk-3")).isPositive();
+    }
+
+    @Test
+    void selectedIdsContinueAfterAChunkOfDeletedUsers() {
+        User deletedFirst = userRepository.save(new User("bulk-deleted-1", "secret"));
+        User deletedSecond = userRepository.save(new User("bulk-deleted-2", "secret"));
+        User third = createUser("bulk-3");
+        User fourth = createUser("bulk-4");
+        Set<Long> ids = Set.of(deletedFirst.getId(), deletedSecond.getId(), third.getId(), fourth.getId());
+        userRepository.deleteAll(List.of(deletedFirst, deletedSecond));
+        entityManager.flush();
+
+        List<Long> progress = new ArrayList<>();
+        UserBulkResult result = bulkService.apply(UserBulkAction.DISABLE, null, UserSelection.ofIds(ids), null,
+                progress::add);
+
+        assertThat(result.selectedUsers()).isEqualTo(2);
+        assertThat(progress).containsExactly(2L, 4L);
+        assertThat(reload(third).isEnabled()).isFalse();
+        assertThat(reload(fourth).isEnabled()).isFalse();
+    }
+
+    @Test
+    void lockUsersMatchingFilter() {
+        User matching = createUser("incident-a");
+        User other = createUser("bystander");
+
+        UserBulkResult result = bulkService.apply(UserBulkAction.LOCK, null, UserSelection.matching("INCIDENT"), null,
+                null);
+
+        assertThat(result.selectedUsers()).isEqualTo(1);
+        assertThat(reload(matching).isAccountNonLocked()).isFalse();
+        assertThat(reload(other).isAccountNonLocked()).isTrue();
+    }
+
+    @Test
+    void addAndRemoveRoleWithSetBasedStatements() {
+        User first = createUser("roles-1");
+        User second = createUser("roles-2");
+        userRoleRepository.save(new UserRole(UserRoleType.ADMIN, second));
+        entityManager.flush();
+        UserSelection selection = UserSelection.ofIds(Set.of(first.getId(), second.getId()));
+
+        UserBulkResult added = bulkService.apply(UserBulkAction.ADD_ROLE, UserRoleType.ADMIN, selection, null, null);
+        entityManager.clear();
+
+        assertThat(added.changedUsers()).isEqualTo(1);
+        assertThat(userRoleRepository.findAllByUserId(first.getId())).extracting(UserRole::getUserRoleType)
+                .containsExactlyInAnyOrder(UserRoleType.USER, UserRoleType.ADMIN);
+        assertThat(userRoleRepository.findAllByUserId(second.getId())).hasSize(2);
+
+        UserBulkResult removed = bulkService.apply(UserBulkAction.REMOVE_ROLE, UserRoleType.ADMIN, selection, null,
+                null);
+        entityManager.clear();
+
+        assertThat(removed.changedUsers()).isEqualTo(2);
+        assertThat(userRoleRepository.findAllByUserId(first.getId())).extracting(UserRole::getUserRoleType)
+                .containsExactly(UserRoleType.USER);
+        assertThat(userRoleRepository.findAllByUserId(second.getId())).extracting(UserRole::getUserRoleType)
+                .containsExactly(UserRoleType.USER);
+    }
+
+    @Test
+    void actionsRevokingAccessSkipTheActingUser() {
+        User admin = createUser("acting-admin");
+        userRoleRepository.save(new UserRole(UserRoleType.ADMIN, admin));
+        User other = createUser("other-admin");
+        userRoleRepository.save(new UserRole(UserRoleType.ADMIN, other));
+        entityManager.flush();
+
+        UserBulkResult locked = bulkService.apply(UserBulkAction.LOCK, null, UserSelection.matching(""),
+                admin.getId(), null);
+        bulkService.apply(UserBulkAction.REMOVE_ROLE, UserRoleType.ADMIN, UserSelection.matching(""), admin.getId(),
+                null);
+        entityManager.clear();
+
+        assertThat(locked.selectedUsers()).isEqualTo(1);
+        assertThat(reload(admin).isAccountNonLocked()).isTrue();
+        assertThat(reload(other).isAccountNonLocked()).isFalse();
+        assertThat(userRoleRepository.findAllByUserId(admin.getId())).extracting(UserRole::getUserRoleType)
+                .contains(UserRoleType.ADMIN);
+        assertThat(userRoleRepository.findAllByUserId(other.getId())).extracting(UserRole::getUserRoleType)
+                .containsExactly(UserRoleType.USER);
+
+        UserBulkResult unlocked = bulkService.apply(UserBulkAction.UNLOCK, null, UserSelection.matching(""),
+                admin.getId(), null);
+
+        assertThat(unlocked.selectedUsers()).isEqualTo(2);
+    }
+
+    @Test
+    void failureReportsCommittedChunks() {
+        createUser("fail-1");
+        createUser("fail-2");
+        User third = createUser("fail-3");
+        entityManager.flush();
+
+        assertThatThrownBy(() -> bulkService.apply(UserBulkAction.DISABLE, null, UserSelection.matching("fail-"),
+                null, processed -> {
+                    if (processed >= 2) {
+                        throw new IllegalStateException("connection lost");
+                    }
+                }))
+                .isInstanceOfSatisfying(UserBulkException.class, e -> {
+                    assertThat(e.getCommittedChunks()).isEqualTo(1);
+                    assertThat(e.getCommitted().changedUsers()).isEqualTo(2);
+                });
+        assertThat(reload(third).isEnabled()).isTrue();
+    }
+}
@@ -0,0 +1,165 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.api.user.UserDto;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import com.vaaskel.security.UserChangeTracker;
+import com.vaaskel.security.UserDetailsCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform and virtual threads on the fetch path of the user grid (keyset page + roles).
+ * <p>
+ * Run with {@code -Dvaaskel.benchmark=true}. Every request also blocks for {@code io-delay-ms}, once inside
+ * its transaction (holding the pooled connection like a round trip to PostgreSQL would, the in-memory
+ * database has none) and once after it (non-database I/O). The platform pool has Tomcat's default of 200
+ * threads and the Hikari pool is sized above it, so neither run is capped by connections; latencies include
+ * the time spent waiting for a thread. Results are logged with both settings.
+ */
+@DataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=" + UserFetchLoadTest.CONNECTIONS)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({UserServiceImpl.class, UsernameSearchIndex.class, UserDetailsCache.class, UserChangeTracker.class,
+        UserImportService.class, UserBulkService.class, UserFetchLoadTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "vaaskel.benchmark", matches = "true")
+class UserFetchLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserFetchLoadTest.class);
+
+    private static final int PLATFORM_THREADS = 200;
+    static final int CONNECTIONS = 250;
+    private static final int PAGE_SIZE = 50;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        userRoleRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() {
+        int users = Integer.getInteger("vaaskel.benchmark.load.users", 5_000);
+        int requests = Integer.getInteger("vaaskel.benchmark.load.requests", 20_000);
+        long ioDelayMillis = Long.getLong("vaaskel.benchmark.load.io-delay-ms", 5);
+
+        userImportService.importUsers(LongStream.range(0, users)
+                .mapToObj(i -> new UserImportRow(i + 1, "load-" + i, "secret", EnumSet.of(UserRoleType.USER))));
+        List<Long> ids = userService.findUsersAfterId(null, users).stream().map(UserDto::getId).toList();
+
+        // Warm-up
+        run("warm-up", Executors.newFixedThreadPool(PLATFORM_THREADS), ids, requests / 4, ioDelayMillis, true);
+
+        for (boolean inTransaction : new boolean[]{true, false}) {
+            run("platform", Executors.newFixedThreadPool(PLATFORM_THREADS), ids, requests, ioDelayMillis,
+                    inTransaction);
+            run("virtual", Executors.newVirtualThreadPerTaskExecutor(), ids, requests, ioDelayMillis,
+                    inTransaction);
+        }
+    }
+
+    private void run(String label, ExecutorService executor, List<Long> ids, int requests, long ioDelayMillis,
+                     boolean inTransaction) {
+        long[] latencies = new long[requests];
+        long start = System.nanoTime();
+
+        try (executor) {
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                executor.execute(() -> {
+                    fetchPage(ids, ioDelayMillis, inTransaction);
+                    latencies[request] = System.nanoTime() - submitted;
+                });
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        long p99 = latencies[Math.max(0, (int) Math.ceil(requests * 0.99) - 1)];
+
+        LOGGER.info("user grid fetch [{}, {} ms blocking {} the transaction, {} platform threads, {} connections]: "
+                        + "{} requests in {} s -> {} req/s, p50 {} ms, p99 {} ms", label, ioDelayMillis,
+                inTransaction ? "inside" : "after", PLATFORM_THREADS, CONNECTIONS, requests,
+                String.format("%.2f", seconds), String.format("%,.0f", requests / seconds),
+                String.format("%.1f", latencies[requests / 2] / 1e6), String.format("%.1f", p99 / 1e6));
+        assertThat(latencies[0]).isPositive();
+    }
+
+    private void fetchPage(List<Long> ids, long ioDelayMillis, boolean inTransaction) {
+        Long after = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(_ -> {
+            userService.findUsersAfterId(after, PAGE_SIZE);
+            if (inTransaction) {
+                // Still holding the connection, like a round trip to a remote database would
+                block(ioDelayMillis);
+            }
+        });
+        if (!inTransaction) {
+            // Connection already returned, like a call to another service would
+            block(ioDelayMillis);
+        }
+    }
+
+    private static void block(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
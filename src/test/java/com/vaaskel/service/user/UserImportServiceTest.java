@@ -0,0 +1,88 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The import commits chunk by chunk, so the test must not run inside a test-managed transaction.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=50")
+@ActiveProfiles("test")
+@Import({UserImportService.class, UsernameSearchIndex.class, UserImportServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            // Minimum cost: the import pipeline is under test, not bcrypt
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @AfterEach
+    void cleanUp() {
+        userRoleRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importCsvCreatesValidRowsAndReportsInvalidOnes() {
+        String csv = """
+                username,password,roles
+                alice,secret,ADMIN|USER
+                bob,secret
+                ,secret,USER
+                alice,other,USER
+                carol,secret,UNKNOWN
+                """;
+
+        UserImportResult result = userImportService.importCsv(new StringReader(csv));
+
+        assertThat(result.processedRows()).isEqualTo(5);
+        assertThat(result.importedRows()).isEqualTo(2);
+        assertThat(result.errors()).extracting(UserImportError::lineNumber).containsExactly(4L, 5L, 6L);
+
+        assertThat(userRepository.findByUsername("alice")).isPresent();
+        assertThat(userRepository.findByUsername("bob").orElseThrow().getRoles())
+                .extracting(r -> r.getUserRoleType()).containsExactly(UserRoleType.USER);
+    }
+
+    @Test
+    void importSkipsUsernamesThatAlreadyExist() {
+        userImportService.importCsv(new StringReader("dave,secret\n"));
+
+        UserImportResult result = userImportService.importCsv(new StringReader("dave,secret\nerin,secret\n"));
+
+        assertThat(result.importedRows()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().extracting(UserImportError::message)
+                .isEqualTo("username already exists");
+    }
+}
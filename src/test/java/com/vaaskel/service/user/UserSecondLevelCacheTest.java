@@ -0,0 +1,119 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.api.user.UserDto;
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import com.vaaskel.security.UserChangeTracker;
+import com.vaaskel.security.UserDetailsCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Service writes against the second-level and query caches as configured for int/prod.
+ * Caches are only filled by committed transactions, so the test runs without a test-managed transaction.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"})
+@ActiveProfiles("test")
+@Import({UserServiceImpl.class, UsernameSearchIndex.class, UserDetailsCache.class, UserChangeTracker.class,
+        UserImportService.class, UserBulkService.class, UserSecondLevelCacheTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        userRoleRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void cachedRolesAreFreshAfterSetUserRoles() {
+        Long id = userService.createUser(new UserDto().setUsername("cached").setRoles(EnumSet.of(UserRoleType.USER)))
+                .getId();
+
+        assertThat(cachedRoles(id)).containsExactly(UserRoleType.USER);
+        assertThat(entityManagerFactory.getCache().contains(User.class, id)).isTrue();
+
+        userService.setUserRoles(id, EnumSet.of(UserRoleType.USER, UserRoleType.ADMIN));
+
+        assertThat(cachedRoles(id)).containsExactlyInAnyOrder(UserRoleType.USER, UserRoleType.ADMIN);
+    }
+
+    @Test
+    void cachedRolesAndCountsAreFreshAfterSaveUser() {
+        Long id = userService.createUser(new UserDto().setUsername("before").setRoles(EnumSet.of(UserRoleType.USER)))
+                .getId();
+
+        assertThat(cachedRoles(id)).containsExactly(UserRoleType.USER);
+        assertThat(userService.countUsers()).isEqualTo(1);
+        assertThat(userService.countUsersByUsername("before")).isEqualTo(1);
+
+        UserDto dto = userService.findUserById(id).orElseThrow();
+        dto.setUsername("after").setRoles(EnumSet.of(UserRoleType.ADMIN));
+        userService.saveUser(dto);
+
+        assertThat(cachedRoles(id)).containsExactly(UserRoleType.ADMIN);
+        assertThat(userService.countUsersByUsername("before")).isZero();
+        assertThat(userService.countUsersByUsername("after")).isEqualTo(1);
+
+        userService.createUser(new UserDto().setUsername("second"));
+
+        assertThat(userService.countUsers()).isEqualTo(2);
+    }
+
+    /**
+     * Roles through the cached {@code User.roles} collection, as the authentication and snapshot code reads them.
+     */
+    private Set<UserRoleType> cachedRoles(Long id) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(_ -> UserServiceImpl.toRoleSet(userRepository.findById(id).orElseThrow().getRoles()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.api.user.UserDto;
+import com.vaaskel.domain.security.entity.User;
+import com.vaaskel.domain.security.entity.UserRole;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UserRoleRepository;
+import com.vaaskel.security.UserChangeTracker;
+import com.vaaskel.security.UserDetailsCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserServiceImpl.class, UsernameSearchIndex.class, UserDetailsCache.class, UserChangeTracker.class,
+        UserImportService.class, UserBulkService.class, UserServiceImplTest.Config.class})
+class UserServiceImplTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User createUserWithRoles(UserRoleType... roles) {
+        User user = userRepository.save(new User("roles-user", "secret"));
+        for (UserRoleType role : roles) {
+            userRoleRepository.save(new UserRole(role, user));
+        }
+        userRoleRepository.flush();
+        return user;
+    }
+
+    @Test
+    void setUserRolesWithUnchangedRolesKeepsExistingRows() {
+        User user = createUserWithRoles(UserRoleType.ADMIN, UserRoleType.USER);
+        List<Long> before = userRoleRepository.findAllByUserId(user.getId()).stream().map(UserRole::getId).toList();
+
+        userService.setUserRoles(user.getId(), EnumSet.of(UserRoleType.ADMIN, UserRoleType.USER));
+
+        List<Long> after = userRoleRepository.findAllByUserId(user.getId()).stream().map(UserRole::getId).toList();
+        assertThat(after).containsExactlyInAnyOrderElementsOf(before);
+    }
+
+    @Test
+    void setUserRolesOnlyAppliesTheDifference() {
+        User user = createUserWithRoles(UserRoleType.USER);
+        Long userRoleId = userRoleRepository.findAllByUserId(user.getId()).getFirst().getId();
+
+        userService.setUserRoles(user.getId(), EnumSet.of(UserRoleType.USER, UserRoleType.ADMIN));
+
+        assertThat(userService.getUserRoles(user.getId())).containsExactlyInAnyOrder(UserRoleType.USER,
+                UserRoleType.ADMIN);
+        assertThat(userRoleRepository.findAllByUserId(user.getId())).extracting(UserRole::getId)
+                .contains(userRoleId);
+
+        userService.setUserRoles(user.getId(), EnumSet.noneOf(UserRoleType.class));
+
+        assertThat(userService.getUserRoles(user.getId())).isEmpty();
+    }
+
+    @Test
+    void changedAtOrderPagesWithKeysetsInBothDirections() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        Long first = userChangedAt("keyset-1", base.plusMinutes(1));
+        Long second = userChangedAt("keyset-2", base.plusMinutes(3));
+        Long third = userChangedAt("keyset-3", base.plusMinutes(3));
+        Long fourth = userChangedAt("keyset-4", base.plusMinutes(2));
+        userChangedAt("other", base.plusMinutes(5));
+        entityManager.clear();
+
+        List<UserDto> newest = userService.findUsersByChangedAt("keyset", true, null, null, 2);
+        UserDto last = newest.getLast();
+        List<UserDto> older = userService.findUsersByChangedAt("keyset", true, last.getChangedAt(), last.getId(), 2);
+
+        assertThat(newest).extracting(UserDto::getId).containsExactly(third, second);
+        assertThat(older).extracting(UserDto::getId).containsExactly(fourth, first);
+
+        List<UserDto> oldest = userService.findUsersByChangedAt("KEYSET", false, null, null, 2);
+        last = oldest.getLast();
+        List<UserDto> newer = userService.findUsersByChangedAt("KEYSET", false, last.getChangedAt(), last.getId(), 2);
+
+        assertThat(oldest).extracting(UserDto::getId).containsExactly(first, fourth);
+        assertThat(newer).extracting(UserDto::getId).containsExactly(second, third);
+
+        assertThat(userService.findUsersByChangedAt("keyset", true, 1, 2)).extracting(UserDto::getId)
+                .containsExactly(second, fourth);
+        assertThat(userService.findUsersByChangedAt("keyset_", true, null, null, 10)).isEmpty();
+    }
+
+    // changedAt is set by Hibernate on every save, so it is overwritten with a bulk update
+    private Long userChangedAt(String username, LocalDateTime changedAt) {
+        Long id = userRepository.saveAndFlush(new User(username, "secret")).getId();
+        entityManager.createQuery("update User u set u.changedAt = :changedAt where u.id = :id")
+                .setParameter("changedAt", changedAt)
+                .setParameter("id", id)
+                .executeUpdate();
+        return id;
+    }
+}
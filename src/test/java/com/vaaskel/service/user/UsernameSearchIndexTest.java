@@ -0,0 +1,88 @@
+package com.vaaskel.service.user;
+
+import com.vaaskel.repository.security.UserRepository;
+import com.vaaskel.repository.security.UsernameEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameSearchIndexTest {
+
+    private UsernameSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllUsernames()).thenReturn(List.of(
+                new UsernameEntry(3L, "Alice"),
+                new UsernameEntry(1L, "malice"),
+                new UsernameEntry(2L, "bob"),
+                new UsernameEntry(4L, "ALI")));
+
+        index = new UsernameSearchIndex(userRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void searchReturnsCaseInsensitiveSubstringMatchesInIdOrder() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("LIC", 0, 10)).containsExactly(1L, 3L);
+        assertThat(index.count("lic")).isEqualTo(2);
+    }
+
+    @Test
+    void shortNeedlesAndPagingAreSupported() {
+        assertThat(index.search("li", 0, 10)).containsExactly(1L, 3L, 4L);
+        assertThat(index.search("li", 1, 1)).containsExactly(3L);
+        assertThat(index.searchAfter("li", 3L, 10)).containsExactly(4L);
+        assertThat(index.count("")).isEqualTo(4);
+    }
+
+    @Test
+    void putReplacesTrigramsOfRenamedUser() {
+        index.put(2L, "robert");
+
+        assertThat(index.search("bob", 0, 10)).isEmpty();
+        assertThat(index.search("rob", 0, 10)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(4);
+
+        index.remove(2L);
+
+        assertThat(index.search("rob", 0, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void writesDuringRebuildAreNotOverwrittenBySnapshot() {
+        UserRepository userRepository = mock(UserRepository.class);
+        UsernameSearchIndex rebuilt = new UsernameSearchIndex(userRepository);
+        when(userRepository.findAllUsernames()).thenAnswer(_ -> {
+            // Committed after the snapshot below was read
+            rebuilt.put(1L, "renamed");
+            rebuilt.remove(2L);
+            return List.of(new UsernameEntry(1L, "original"), new UsernameEntry(2L, "deleted"));
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.search("ren", 0, 10)).containsExactly(1L);
+        assertThat(rebuilt.search("ori", 0, 10)).isEmpty();
+        assertThat(rebuilt.search("del", 0, 10)).isEmpty();
+        assertThat(rebuilt.size()).isEqualTo(1);
+    }
+
+    @Test
+    void postingsStaySortedForOutOfOrderInserts() {
+        index.put(10L, "alicia");
+        index.put(5L, "licorice");
+        index.put(7L, "lica");
+
+        assertThat(index.search("lic", 0, 10)).containsExactly(1L, 3L, 5L, 7L, 10L);
+        assertThat(index.searchAfter("lic", 5L, 2)).containsExactly(7L, 10L);
+    }
+}
@@ -0,0 +1,31 @@
+package com.vaaskel.ui.i18n;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppI18NProviderTest {
+
+    private final AppI18NProvider provider = new AppI18NProvider(Duration.ZERO);
+
+    @Test
+    void germanAndUnknownLocalesResolveToBaseBundle() {
+        String english = provider.getTranslation("view.login.form.username", Locale.ENGLISH);
+
+        assertThat(english).doesNotStartWith("!");
+        assertThat(provider.getTranslation("view.login.form.username", Locale.GERMANY)).isEqualTo(english);
+        assertThat(provider.getTranslation("view.login.form.username", Locale.JAPANESE)).isEqualTo(english);
+        assertThat(provider.getTranslation("view.login.form.username", null)).isEqualTo(english);
+    }
+
+    @Test
+    void missingKeysReturnCachedMarker() {
+        String marker = provider.getTranslation("does.not.exist", Locale.ENGLISH);
+
+        assertThat(marker).isEqualTo("!does.not.exist!");
+        assertThat(provider.getTranslation("does.not.exist", Locale.GERMAN)).isSameAs(marker);
+    }
+}
@@ -0,0 +1,35 @@
+package com.vaaskel.ui.i18n;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageTemplateTest {
+
+    @Test
+    void simplePatternsMatchStringFormat() {
+        assertFormatsLikeStringFormat("Hello %s!", "Alice");
+        assertFormatsLikeStringFormat("%2$s before %1$s, 100%%", "a", "b");
+        assertFormatsLikeStringFormat("%s and %s", null, 3);
+    }
+
+    @Test
+    void complexPatternsFallBackToStringFormat() {
+        assertFormatsLikeStringFormat("%5d items", 42);
+        assertFormatsLikeStringFormat("%.2f EUR", 1.5);
+    }
+
+    @Test
+    void textReturnsPatternUnchanged() {
+        MessageTemplate template = MessageTemplate.parse("100%% sure");
+
+        assertThat(template.text()).isSameAs(template.text()).isEqualTo("100%% sure");
+    }
+
+    private static void assertFormatsLikeStringFormat(String pattern, Object... params) {
+        assertThat(MessageTemplate.parse(pattern).format(Locale.ENGLISH, params))
+                .isEqualTo(String.format(Locale.ENGLISH, pattern, params));
+    }
+}
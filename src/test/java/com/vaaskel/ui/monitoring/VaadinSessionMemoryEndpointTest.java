@@ -0,0 +1,70 @@
+package com.vaaskel.ui.monitoring;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.i18n.I18NProvider;
+import com.vaadin.flow.server.auth.AccessAnnotationChecker;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.domain.settings.ThemePreference;
+import com.vaaskel.security.AuthenticatedUser;
+import com.vaaskel.security.AuthenticatedUserSnapshot;
+import com.vaaskel.service.settings.UserSettingsService;
+import com.vaaskel.ui.navigation.NavigationMenu;
+import com.vaaskel.ui.theme.ThemeCookie;
+import com.vaaskel.ui.views.MainLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VaadinSessionMemoryEndpointTest {
+
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private final VaadinSessionMemoryEndpoint endpoint = new VaadinSessionMemoryEndpoint(beanFactory);
+
+    @AfterEach
+    void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Test
+    void uiWithMainLayoutIsMeasuredWithSpringBeansStubbed() {
+        AuthenticatedUser authenticatedUser = mock(AuthenticatedUser.class);
+        when(authenticatedUser.getSnapshot()).thenReturn(Optional.of(new AuthenticatedUserSnapshot(1L, "admin", 0L,
+                Set.of(UserRoleType.ADMIN), ThemePreference.DARK, 0, Instant.now())));
+        UserSettingsService userSettingsService = mock(UserSettingsService.class);
+        NavigationMenu navigationMenu = new NavigationMenu(mock(AccessAnnotationChecker.class),
+                mock(I18NProvider.class), Duration.ZERO);
+        ThemeCookie themeCookie = new ThemeCookie();
+
+        beanFactory.registerSingleton("authenticatedUser", authenticatedUser);
+        beanFactory.registerSingleton("userSettingsService", userSettingsService);
+        beanFactory.registerSingleton("navigationMenu", navigationMenu);
+        beanFactory.registerSingleton("themeCookie", themeCookie);
+
+        UI ui = new UI();
+        UI.setCurrent(ui);
+        ui.add(new MainLayout(userSettingsService, authenticatedUser, navigationMenu, themeCookie));
+
+        VaadinSessionMemoryEndpoint.Measurement size = endpoint.serializedSize(ui);
+
+        assertThat(size.bytes()).isPositive();
+    }
+
+    @Test
+    void nonSerializableObjectsAreStubbedAndCounted() {
+        Object notSerializable = new Object();
+
+        VaadinSessionMemoryEndpoint.Measurement size = endpoint.serializedSize(new Object[] {notSerializable, "x"});
+
+        assertThat(size.bytes()).isPositive();
+        assertThat(size.stubbedObjects()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.vaaskel.ui.navigation;
+
+import com.vaadin.flow.i18n.I18NProvider;
+import com.vaadin.flow.router.RouteData;
+import com.vaadin.flow.server.auth.AccessAnnotationChecker;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.ui.views.admin.UserManagementView;
+import com.vaaskel.ui.views.landing.LandingView;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Menu entries per role set, built from the real access annotations of the views.
+ */
+class NavigationMenuTest {
+
+    private final I18NProvider i18nProvider = mock(I18NProvider.class);
+
+    NavigationMenuTest() {
+        when(i18nProvider.getProvidedLocales()).thenReturn(List.of(Locale.ENGLISH));
+        when(i18nProvider.getTranslation(anyString(), any(Locale.class))).thenReturn("title");
+    }
+
+    private NavigationMenu menu(Duration i18nReloadInterval) {
+        NavigationMenu menu = new NavigationMenu(new AccessAnnotationChecker(), i18nProvider, i18nReloadInterval);
+        menu.rebuild(List.of(route(LandingView.class, ""), route(UserManagementView.class, "admin/users")));
+        return menu;
+    }
+
+    private static RouteData route(Class<?> target, String template) {
+        RouteData route = mock(RouteData.class);
+        doReturn(target).when(route).getNavigationTarget();
+        when(route.getTemplate()).thenReturn(template);
+        return route;
+    }
+
+    private static List<String> paths(List<NavigationItem> items) {
+        return items.stream().map(NavigationItem::path).toList();
+    }
+
+    @Test
+    void adminRouteOnlyForAdmins() {
+        NavigationMenu menu = menu(Duration.ZERO);
+
+        assertThat(paths(menu.items(EnumSet.of(UserRoleType.ADMIN), Locale.ENGLISH))).contains("admin/users");
+        assertThat(paths(menu.items(EnumSet.of(UserRoleType.USER), Locale.ENGLISH)))
+                .contains("")
+                .doesNotContain("admin/users");
+        assertThat(paths(menu.items(Set.of(), Locale.ENGLISH))).doesNotContain("admin/users");
+    }
+
+    @Test
+    void titlesAreCachedWithoutReload() {
+        NavigationMenu menu = menu(Duration.ZERO);
+        menu.items(EnumSet.of(UserRoleType.ADMIN), Locale.ENGLISH);
+
+        when(i18nProvider.getTranslation(anyString(), any(Locale.class))).thenReturn("edited");
+
+        assertThat(menu.items(EnumSet.of(UserRoleType.ADMIN), Locale.ENGLISH))
+                .extracting(NavigationItem::title)
+                .containsOnly("title");
+    }
+
+    @Test
+    void titlesFollowReloadedMessages() {
+        NavigationMenu menu = menu(Duration.ofSeconds(2));
+        menu.items(EnumSet.of(UserRoleType.ADMIN), Locale.ENGLISH);
+
+        when(i18nProvider.getTranslation(anyString(), any(Locale.class))).thenReturn("edited");
+
+        assertThat(menu.items(EnumSet.of(UserRoleType.ADMIN), Locale.ENGLISH))
+                .extracting(NavigationItem::title)
+                .containsOnly("edited");
+    }
+}
@@ -0,0 +1,56 @@
+package com.vaaskel.ui.theme;
+
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaaskel.domain.settings.ThemePreference;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThemeCookieTest {
+
+    private final ThemeCookie themeCookie = new ThemeCookie();
+
+    @Test
+    void writesThePlainPreference() {
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getContextPath()).thenReturn("");
+        when(request.isSecure()).thenReturn(true);
+        VaadinResponse response = mock(VaadinResponse.class);
+
+        themeCookie.write(request, response, ThemePreference.DARK);
+
+        ArgumentCaptor<Cookie> cookie = ArgumentCaptor.forClass(Cookie.class);
+        verify(response).addCookie(cookie.capture());
+        assertThat(cookie.getValue().getName()).isEqualTo(ThemeCookie.NAME);
+        assertThat(cookie.getValue().getValue()).isEqualTo("DARK");
+        assertThat(cookie.getValue().getPath()).isEqualTo("/");
+        assertThat(cookie.getValue().isHttpOnly()).isTrue();
+        assertThat(cookie.getValue().getSecure()).isTrue();
+    }
+
+    @Test
+    void readsTheWrittenPreference() {
+        assertThat(themeCookie.read(request(new Cookie("other", "x"), new Cookie(ThemeCookie.NAME, "LIGHT"))))
+                .contains(ThemePreference.LIGHT);
+    }
+
+    @Test
+    void ignoresInvalidOrMissingValues() {
+        assertThat(themeCookie.read(request(new Cookie(ThemeCookie.NAME, "PURPLE")))).isEmpty();
+        assertThat(themeCookie.read(request(new Cookie(ThemeCookie.NAME, "")))).isEmpty();
+        assertThat(themeCookie.read(request())).isEmpty();
+        assertThat(themeCookie.read(null)).isEmpty();
+    }
+
+    private static VaadinRequest request(Cookie... cookies) {
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getCookies()).thenReturn(cookies);
+        return request;
+    }
+}
@@ -0,0 +1,81 @@
+package com.vaaskel.ui.theme;
+
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.communication.IndexHtmlRequestListener;
+import com.vaadin.flow.server.communication.IndexHtmlResponse;
+import com.vaaskel.domain.security.entity.UserRoleType;
+import com.vaaskel.domain.settings.ThemePreference;
+import com.vaaskel.security.AuthenticatedUser;
+import com.vaaskel.security.AuthenticatedUserSnapshot;
+import jakarta.servlet.http.Cookie;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Theme of the bootstrap page: the user's snapshot wins over the cookie, the system theme is the fallback.
+ */
+class ThemeInitListenerTest {
+
+    private final AuthenticatedUser authenticatedUser = mock(AuthenticatedUser.class);
+
+    @Test
+    void anonymousPageUsesTheCookie() {
+        when(authenticatedUser.getSnapshot()).thenReturn(Optional.empty());
+
+        Document document = bootstrapPage(new Cookie(ThemeCookie.NAME, "DARK"));
+
+        assertThat(document.selectFirst("html").attr("theme")).isEqualTo("dark");
+    }
+
+    @Test
+    void snapshotWinsOverTheCookie() {
+        when(authenticatedUser.getSnapshot()).thenReturn(Optional.of(new AuthenticatedUserSnapshot(1L, "user", 0L,
+                Set.of(UserRoleType.USER), ThemePreference.LIGHT, 0, Instant.now())));
+
+        Document document = bootstrapPage(new Cookie(ThemeCookie.NAME, "DARK"));
+
+        assertThat(document.selectFirst("html").attr("theme")).isEqualTo("light");
+    }
+
+    @Test
+    void invalidCookieFallsBackToTheSystemTheme() {
+        when(authenticatedUser.getSnapshot()).thenReturn(Optional.empty());
+
+        Document document = bootstrapPage(new Cookie(ThemeCookie.NAME, "PURPLE"));
+
+        assertThat(document.selectFirst("html").hasAttr("theme")).isFalse();
+        assertThat(document.head().select("script").html()).contains("prefers-color-scheme: dark");
+    }
+
+    private Document bootstrapPage(Cookie... cookies) {
+        ServiceInitEvent event = mock(ServiceInitEvent.class);
+        when(event.getSource()).thenReturn(mock(VaadinService.class));
+        new ThemeInitListener(authenticatedUser, new ThemeCookie()).serviceInit(event);
+
+        ArgumentCaptor<IndexHtmlRequestListener> listener = ArgumentCaptor.forClass(IndexHtmlRequestListener.class);
+        verify(event).addIndexHtmlRequestListener(listener.capture());
+
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getCookies()).thenReturn(cookies);
+        Document document = Jsoup.parse("<html><head></head><body></body></html>");
+        IndexHtmlResponse response = mock(IndexHtmlResponse.class);
+        when(response.getVaadinRequest()).thenReturn(request);
+        when(response.getDocument()).thenReturn(document);
+
+        listener.getValue().modifyIndexHtmlResponse(response);
+        return document;
+    }
+}
@@ -0,0 +1,59 @@
+package com.vaaskel.ui.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetPagerTest {
+
+    private static final List<Long> ROWS = LongStream.rangeClosed(1, 10_000).boxed().toList();
+
+    private final KeysetPager<Long, Long> pager = new KeysetPager<>(id -> id);
+    private final List<String> calls = new ArrayList<>();
+
+    private final BiFunction<Long, Integer, List<Long>> fetchAfter = (after, n) -> {
+        calls.add("after " + after + " x" + n);
+        int from = after == null ? 0 : after.intValue();
+        return ROWS.subList(from, Math.min(ROWS.size(), from + n));
+    };
+
+    private final BiFunction<Integer, Integer, List<Long>> fetchAtOffset = (offset, n) -> {
+        calls.add("offset " + offset + " x" + n);
+        return ROWS.subList(offset, Math.min(ROWS.size(), offset + n));
+    };
+
+    private List<Long> fetch(int offset, int limit) {
+        return pager.fetch(offset, limit, fetchAfter, fetchAtOffset).toList();
+    }
+
+    @Test
+    void sequentialPagesUseKeyset() {
+        assertThat(fetch(0, 50)).startsWith(1L).hasSize(50);
+        assertThat(fetch(50, 50)).startsWith(51L).endsWith(100L);
+
+        assertThat(calls).containsExactly("after null x50", "after 50 x50");
+    }
+
+    @Test
+    void jumpFallsBackToOffsetAndContinuesWithKeyset() {
+        fetch(0, 50);
+
+        assertThat(fetch(9_000, 50)).startsWith(9_001L).hasSize(50);
+        assertThat(fetch(9_050, 50)).startsWith(9_051L);
+
+        assertThat(calls).containsExactly("after null x50", "offset 9000 x50", "after 9050 x50");
+    }
+
+    @Test
+    void smallGapIsSkippedFromNearestKey() {
+        fetch(0, 50);
+
+        assertThat(fetch(60, 50)).startsWith(61L).hasSize(50);
+        assertThat(calls).containsExactly("after null x50", "after 50 x60");
+    }
+}